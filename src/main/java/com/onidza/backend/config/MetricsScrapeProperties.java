@@ -0,0 +1,16 @@
+package com.onidza.backend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.metrics.scrape")
+public class MetricsScrapeProperties {
+
+    private String username = "prometheus";
+
+    // blank leaves /actuator/prometheus to ADMIN tokens only
+    private String password;
+}
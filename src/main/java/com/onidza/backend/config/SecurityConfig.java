@@ -2,15 +2,22 @@ package com.onidza.backend.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -22,7 +29,42 @@ import java.util.stream.Collectors;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    // scrapers authenticate with basic auth under the METRICS role, admins can still use their token
     @Bean
+    @Order(1)
+    SecurityFilterChain metricsFilterChain(HttpSecurity http, MetricsScrapeProperties scrape) throws Exception {
+        PasswordEncoder encoder = PasswordEncoderFactories.createDelegatingPasswordEncoder();
+        InMemoryUserDetailsManager scrapers = new InMemoryUserDetailsManager();
+        if (StringUtils.hasText(scrape.getPassword())) {
+            scrapers.createUser(User.withUsername(scrape.getUsername())
+                    .password(encoder.encode(scrape.getPassword()))
+                    .roles("METRICS")
+                    .build());
+        }
+
+        return http
+                .securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session ->
+                        session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                )
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(HttpMethod.GET)
+                        .hasAnyRole("METRICS", "ADMIN")
+
+                        .anyRequest().denyAll()
+                )
+                .userDetailsService(scrapers)
+                .httpBasic(Customizer.withDefaults())
+                .oauth2ResourceServer(oauth2 ->
+                        oauth2.jwt(jwt ->
+                                jwt.jwtAuthenticationConverter(jwtAuthenticationConverter()))
+                )
+                .build();
+    }
+
+    @Bean
+    @Order(2)
     SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -37,9 +79,28 @@ public class SecurityConfig {
                                 "/error")
                         .permitAll()
 
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/**")
+                        .permitAll()
+
+                        .requestMatchers(HttpMethod.GET, "/actuator/cachemode")
+                        .hasAnyRole("USER", "ADMIN")
+
+                        .requestMatchers(HttpMethod.POST, "/actuator/cachemode")
+                        .hasRole("ADMIN")
+
+                        .requestMatchers(HttpMethod.GET, "/actuator/hotkeys")
+                        .hasRole("ADMIN")
+
                         .requestMatchers(HttpMethod.GET, "/clients", "/clients/*")
                         .hasAnyRole("USER", "ADMIN")
 
+                        // same access as the offset pages they sit next to, /clients/scroll is covered above
+                        .requestMatchers(HttpMethod.GET,
+                                "/clients/orders/scroll",
+                                "/clients/coupons/scroll",
+                                "/clients/profiles/scroll")
+                        .hasAnyRole("USER", "ADMIN")
+
                         .requestMatchers(HttpMethod.POST, "/clients")
                         .hasRole("ADMIN")
 
@@ -0,0 +1,154 @@
+package com.onidza.backend.config.cache;
+
+import com.onidza.backend.config.cache.codec.CacheCodec;
+import com.onidza.backend.config.cache.codec.CacheCompression;
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.mode.CacheMode;
+import com.onidza.backend.config.cache.page.PageCacheMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.cache")
+public class AppCacheProperties {
+
+    private CacheMode mode = CacheMode.TWO_TIER;
+
+    private String invalidationChannel = "cache:invalidation";
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    private Versions versions = new Versions();
+
+    private Refresh refresh = new Refresh();
+
+    private Warmup warmup = new Warmup();
+
+    private Totals totals = new Totals();
+
+    private Prefetch prefetch = new Prefetch();
+
+    private Breaker breaker = new Breaker();
+
+    private HotKeys hotKeys = new HotKeys();
+
+    private Tombstones tombstones = new Tombstones();
+
+    @Getter
+    @Setter
+    public static class Region {
+        private boolean localEnabled = true;
+        private long localMaxSize = 1_000;
+        private Duration localTtl = Duration.ofSeconds(10);
+        private CacheCodec codec = CacheCodec.JSON;
+        private CacheCompression compression = CacheCompression.NONE;
+        private DataSize compressionThreshold = DataSize.ofBytes(512);
+        private boolean singleFlight = true;
+        private boolean distributedLock = false;
+        private Duration lockLease = Duration.ofSeconds(2);
+        private boolean staleWhileRevalidate = false;
+        private Duration staleTtl = Duration.ofSeconds(30);
+        private boolean refreshAhead = false;
+        private double refreshAheadFactor = 0.8;
+        private int refreshMinHits = 3;
+        private PageCacheMode pageMode = PageCacheMode.BLOB;
+        private int admissionMinFrequency = 0;
+        private int admissionSketchSize = 10_000;
+        private boolean rawResponse = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Versions {
+        private long localMaxSize = 10_000;
+        private Duration ttl = Duration.ofMinutes(2);
+        private Duration resyncInterval = Duration.ofSeconds(10);
+        private int resyncBatchSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Refresh {
+        private int threads = 2;
+        private int queueCapacity = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class Warmup {
+        private boolean enabled = true;
+        private int parallelism = 4;
+        private Duration timeout = Duration.ofSeconds(30);
+        private int pageCount = 3;
+        private List<Integer> pageSizes = List.of(20);
+        private int topEntities = 200;
+        private Duration statsFlushInterval = Duration.ofSeconds(30);
+        private Duration statsTtl = Duration.ofDays(1);
+        private int statsMaxKeys = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Totals {
+        private boolean skipCountBeyondFirstPage = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Prefetch {
+        private boolean enabled = false;
+        private int threads = 2;
+        private int queueCapacity = 32;
+        private int maxStreams = 10_000;
+        private Duration streamTtl = Duration.ofMinutes(1);
+        private Duration usedWindow = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Breaker {
+        private boolean enabled = true;
+        private Duration latencyBudget = Duration.ofMillis(100);
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(5);
+        private int replayCapacity = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class HotKeys {
+        private boolean enabled = true;
+        private int capacity = 64;
+        private int topN = 10;
+        private Duration window = Duration.ofSeconds(10);
+        private double hotRate = 50;
+        private boolean promote = false;
+        private long promoteMaxSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class Tombstones {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofSeconds(30);
+    }
+
+    public Region getRegion(String name) {
+        return regions.getOrDefault(name, new Region());
+    }
+
+    // cursor pages share the version keys of their page regions, entity updates don't bump those
+    // for id-list page regions, so a cursor page is only safe to cache as an id list
+    public boolean isIdListPage(String name) {
+        return CacheKeys.CURSOR_REGIONS.contains(name)
+                || getRegion(name).getPageMode() == PageCacheMode.ID_LIST;
+    }
+}
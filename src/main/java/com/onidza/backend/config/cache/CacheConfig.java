@@ -2,22 +2,44 @@ package com.onidza.backend.config.cache;
 
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onidza.backend.config.cache.codec.BinaryRedisSerializer;
+import com.onidza.backend.config.cache.codec.CacheCompression;
+import com.onidza.backend.config.cache.codec.CompressingRedisSerializer;
+import com.onidza.backend.config.cache.codec.DtoBinaryCodecs;
+import com.onidza.backend.config.cache.hotkeys.HotKeyTracker;
 import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.mode.CacheModeHolder;
+import com.onidza.backend.config.cache.page.IdListPageSupport;
+import com.onidza.backend.config.cache.page.IdPage;
 import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsCursorPageDTO;
 import com.onidza.backend.model.dto.client.ClientsPageDTO;
 import com.onidza.backend.model.dto.coupon.CouponDTO;
 import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponsCursorPageDTO;
 import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.dto.order.OrdersCursorPageDTO;
 import com.onidza.backend.model.dto.order.OrdersPageDTO;
 import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.dto.profile.ProfilesCursorPageDTO;
 import com.onidza.backend.model.dto.profile.ProfilesPageDTO;
-import org.springframework.cache.CacheManager;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationBus;
+import com.onidza.backend.service.cache.invalidation.InvalidationReplayQueue;
+import com.onidza.backend.service.cache.warmup.CacheAccessStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -26,86 +48,210 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
-@EnableCaching
+// outside the transaction interceptor, so single-flight followers never hold a connection while waiting
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 @Configuration
-public class CacheConfig {
+public class CacheConfig implements CachingConfigurer {
+
+    // a broken entry or an unexpected Redis error is logged and treated as a miss
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
 
     @Bean
-    public CacheManager cacheManager(
+    public TwoTierCacheManager cacheManager(
             RedisConnectionFactory redisConnectionFactory,
-            ObjectMapper objectMapper
+            ObjectMapper objectMapper,
+            AppCacheProperties cacheProperties,
+            CacheInvalidationBus invalidationBus,
+            StringRedisTemplate stringRedisTemplate,
+            CacheRefresher cacheRefresher,
+            CacheMetrics cacheMetrics,
+            CacheModeHolder cacheModeHolder,
+            CacheAccessStats cacheAccessStats,
+            RedisCircuitBreaker redisCircuitBreaker,
+            InvalidationReplayQueue invalidationReplayQueue,
+            HotKeyTracker hotKeyTracker,
+            ObjectProvider<IdListPageSupport<?, ?>> idListPageSupports
     ) {
         RedisCacheConfiguration base = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()));
 
-        Function<Class<?>, RedisSerializationContext.SerializationPair<Object>> json =
-                clazz -> {
-                    Jackson2JsonRedisSerializer<?> ser = new Jackson2JsonRedisSerializer<>(objectMapper, clazz);
+        BiFunction<String, Class<?>, RedisSerializationContext.SerializationPair<Object>> values =
+                (region, clazz) -> {
+                    Class<?> stored = cacheProperties.isIdListPage(region) ? IdPage.class : clazz;
+                    RedisSerializer<?> ser = new MeteredRedisSerializer<>(
+                            valueSerializer(cacheProperties.getRegion(region), stored, objectMapper),
+                            region,
+                            cacheMetrics
+                    );
 
                     @SuppressWarnings("unchecked")
                     RedisSerializationContext.SerializationPair<Object> pair =
                             (RedisSerializationContext.SerializationPair<Object>)
-                                    RedisSerializationContext.SerializationPair.fromSerializer((RedisSerializer<?>) ser);
+                                    RedisSerializationContext.SerializationPair.fromSerializer(ser);
 
                     return pair;
                 };
 
         var defaultConf = base
-                .serializeValuesWith(json.apply(Object.class))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(objectMapper, Object.class)))
                 .entryTtl(Duration.ofMinutes(1));
 
         Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
         perCache.put(CacheKeys.CLIENT_KEY_PREFIX, base
-                .serializeValuesWith(json.apply(ClientDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.CLIENT_KEY_PREFIX, ClientDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.CLIENTS_PAGE_PREFIX, base
-                .serializeValuesWith(json.apply(ClientsPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.CLIENTS_PAGE_PREFIX, ClientsPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.CLIENTS_CURSOR_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.CLIENTS_CURSOR_PREFIX, ClientsCursorPageDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.COUPON_KEY_PREFIX, base
-                .serializeValuesWith(json.apply(CouponDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.COUPON_KEY_PREFIX, CouponDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.COUPON_PAGE_PREFIX, base
-                .serializeValuesWith(json.apply(CouponPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.COUPON_PAGE_PREFIX, CouponPageDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX, base
-                .serializeValuesWith(json.apply(CouponPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX, CouponPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.COUPONS_CURSOR_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.COUPONS_CURSOR_PREFIX, CouponsCursorPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.COUPONS_CURSOR_BY_CLIENT_ID_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.COUPONS_CURSOR_BY_CLIENT_ID_PREFIX, CouponsCursorPageDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.ORDER_KEY_PREFIX, base
-                .serializeValuesWith(json.apply(OrderDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.ORDER_KEY_PREFIX, OrderDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.ORDERS_PAGE_PREFIX, base
-                .serializeValuesWith(json.apply(OrdersPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_PAGE_PREFIX, OrdersPageDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX, base
-                .serializeValuesWith(json.apply(OrdersPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX, OrdersPageDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
-        perCache.put(CacheKeys.ORDERS_FILTER_STATUS_KEY_PREFIX, base
-                .serializeValuesWith(json.apply(OrdersPageDTO.class))
+        perCache.put(CacheKeys.ORDERS_FILTER_KEY_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_FILTER_KEY_PREFIX, OrdersPageDTO.class))
+                .entryTtl(Duration.ofSeconds(30)));
+
+        perCache.put(CacheKeys.ORDERS_CURSOR_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_CURSOR_PREFIX, OrdersCursorPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.ORDERS_CURSOR_BY_CLIENT_ID_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_CURSOR_BY_CLIENT_ID_PREFIX, OrdersCursorPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.ORDERS_FILTER_CURSOR_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.ORDERS_FILTER_CURSOR_PREFIX, OrdersCursorPageDTO.class))
                 .entryTtl(Duration.ofSeconds(30)));
 
         perCache.put(CacheKeys.PROFILE_KEY_PREFIX, base
-                .serializeValuesWith(json.apply(ProfileDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.PROFILE_KEY_PREFIX, ProfileDTO.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
         perCache.put(CacheKeys.PROFILES_PAGE_PREFIX, base
-                .serializeValuesWith(json.apply(ProfilesPageDTO.class))
+                .serializeValuesWith(values.apply(CacheKeys.PROFILES_PAGE_PREFIX, ProfilesPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.PROFILES_CURSOR_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.PROFILES_CURSOR_PREFIX, ProfilesCursorPageDTO.class))
+                .entryTtl(Duration.ofMinutes(1)));
+
+        perCache.put(CacheKeys.PAGE_TOTALS_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.PAGE_TOTALS_PREFIX, Long.class))
                 .entryTtl(Duration.ofMinutes(1)));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
+        perCache.put(CacheKeys.TOMBSTONE_PREFIX, base
+                .serializeValuesWith(values.apply(CacheKeys.TOMBSTONE_PREFIX, Boolean.class))
+                .entryTtl(cacheProperties.getTombstones().getTtl()));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
                 .cacheDefaults(defaultConf)
                 .withInitialCacheConfigurations(perCache)
                 .disableCreateOnMissingCache()
-                .transactionAware()
                 .build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoTierCacheManager(
+                redisCacheManager,
+                cacheProperties,
+                invalidationBus,
+                stringRedisTemplate,
+                cacheRefresher,
+                cacheMetrics,
+                cacheModeHolder,
+                cacheAccessStats,
+                redisCircuitBreaker,
+                invalidationReplayQueue,
+                hotKeyTracker,
+                idListPageSupports.orderedStream().toList()
+        );
+    }
+
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(AppCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        return new RedisCircuitBreaker(cacheProperties.getBreaker(), meterRegistry);
+    }
+
+    // the latency budget bounds the command itself, a hung Redis fails the call once the budget is
+    // spent instead of holding the request until spring.data.redis.timeout
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer redisCommandTimeout(AppCacheProperties cacheProperties) {
+        AppCacheProperties.Breaker breaker = cacheProperties.getBreaker();
+
+        return builder -> {
+            if (breaker.isEnabled()) builder.commandTimeout(breaker.getLatencyBudget());
+        };
+    }
+
+    @Bean
+    public CacheMetrics cacheMetrics(MeterRegistry meterRegistry) {
+        return new CacheMetrics(meterRegistry);
+    }
+
+    @Bean
+    public CacheRefresher cacheRefresher(
+            AppCacheProperties cacheProperties,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        return new CacheRefresher(cacheProperties.getRefresh(), stringRedisTemplate, meterRegistry);
+    }
+
+    private static <T> RedisSerializer<T> valueSerializer(
+            AppCacheProperties.Region region,
+            Class<T> clazz,
+            ObjectMapper objectMapper
+    ) {
+        RedisSerializer<T> payload = switch (region.getCodec()) {
+            case JSON -> new Jackson2JsonRedisSerializer<>(objectMapper, clazz);
+            case BINARY -> new BinaryRedisSerializer<>(DtoBinaryCodecs.forType(clazz));
+        };
+
+        if (region.getCompression() == CacheCompression.NONE) return payload;
+
+        return new CompressingRedisSerializer<>(
+                payload,
+                region.getCompression(),
+                (int) region.getCompressionThreshold().toBytes()
+        );
     }
 }
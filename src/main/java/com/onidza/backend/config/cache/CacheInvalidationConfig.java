@@ -0,0 +1,28 @@
+package com.onidza.backend.config.cache;
+
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationBus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            CacheInvalidationBus invalidationBus,
+            AppCacheProperties cacheProperties
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(
+                invalidationBus,
+                new ChannelTopic(cacheProperties.getInvalidationChannel())
+        );
+
+        return container;
+    }
+}
@@ -0,0 +1,146 @@
+package com.onidza.backend.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+// meters are registered once per region and tag value, the record path is two map reads
+public class CacheMetrics {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile(":\\d+(?=:|$)");
+
+    private final MeterRegistry meterRegistry;
+
+    private final Meters<Counter> hits;
+    private final Meters<Counter> misses;
+    private final Meters<Timer> loads;
+    private final Meters<Counter> coalesced;
+    private final Meters<Counter> staleServed;
+    private final Meters<Counter> admissions;
+    private final Meters<Counter> tombstones;
+    private final Meters<DistributionSummary> payloads;
+    private final Meters<Counter> evictions;
+    private final Meters<Counter> versionBumps;
+    private final Meters<Timer> versionLookups;
+
+    public CacheMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.hits = new Meters<>((cache, tier) ->
+                meterRegistry.counter("cache.requests", "cache", cache, "tier", tier, "result", "hit"));
+        this.misses = new Meters<>((cache, tier) ->
+                meterRegistry.counter("cache.requests", "cache", cache, "tier", tier, "result", "miss"));
+        this.loads = new Meters<>((cache, result) -> Timer.builder("cache.load")
+                .tag("cache", cache)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.coalesced = new Meters<>((cache, scope) ->
+                meterRegistry.counter("cache.loads.coalesced", "cache", cache, "scope", scope));
+        this.staleServed = new Meters<>((cache, unused) ->
+                meterRegistry.counter("cache.stale.served", "cache", cache));
+        this.admissions = new Meters<>((cache, result) ->
+                meterRegistry.counter("cache.admission", "cache", cache, "result", result));
+        this.tombstones = new Meters<>((region, result) ->
+                meterRegistry.counter("cache.tombstones", "region", region, "result", result));
+        this.payloads = new Meters<>((cache, op) -> DistributionSummary.builder("cache.payload.size")
+                .baseUnit("bytes")
+                .tag("cache", cache)
+                .tag("op", op)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        this.evictions = new Meters<>((cache, cause) ->
+                meterRegistry.counter("cache.evictions", "cache", cache, "cause", cause));
+        this.versionBumps = new Meters<>((key, unused) ->
+                meterRegistry.counter("cache.version.bumps", "key", key));
+        this.versionLookups = new Meters<>((source, unused) ->
+                meterRegistry.timer("cache.version.lookup", "source", source));
+    }
+
+    public void hit(String cache, String tier) {
+        hits.get(cache, tier).increment();
+    }
+
+    public void miss(String cache, String tier) {
+        misses.get(cache, tier).increment();
+    }
+
+    public Timer.Sample startLoad() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stopLoad(Timer.Sample sample, String cache, boolean success) {
+        sample.stop(loads.get(cache, success ? "success" : "failure"));
+    }
+
+    public void coalesced(String cache, String scope) {
+        coalesced.get(cache, scope).increment();
+    }
+
+    public void staleServed(String cache) {
+        staleServed.get(cache, "").increment();
+    }
+
+    public void admission(String cache, boolean admitted) {
+        admissions.get(cache, admitted ? "admitted" : "rejected").increment();
+    }
+
+    public void tombstone(String region, String result) {
+        tombstones.get(region, result).increment();
+    }
+
+    public void payload(String cache, String op, int bytes) {
+        payloads.get(cache, op).record(bytes);
+    }
+
+    public void evicted(String cache, String cause, int count) {
+        evictions.get(cache, cause).increment(count);
+    }
+
+    public void bindLocal(String cache, com.github.benmanes.caffeine.cache.Cache<?, ?> local) {
+        Gauge.builder("cache.local.size", local, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    public void versionBumped(String versionKey) {
+        versionBumps.get(normalize(versionKey), "").increment();
+    }
+
+    public void versionLookup(String source, long nanos) {
+        versionLookups.get(source, "").record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // per-client version keys collapse to one series, e.g. ordersPage:byClientId:{id}:ver
+    private static String normalize(String versionKey) {
+        return NUMERIC_SEGMENT.matcher(versionKey).replaceAll(":{id}");
+    }
+
+    private static final class Meters<M> {
+
+        private final ConcurrentMap<String, ConcurrentMap<String, M>> meters = new ConcurrentHashMap<>();
+        private final BiFunction<String, String, M> factory;
+
+        private Meters(BiFunction<String, String, M> factory) {
+            this.factory = factory;
+        }
+
+        private M get(String first, String second) {
+            ConcurrentMap<String, M> bySecond = meters.get(first);
+            if (bySecond == null) bySecond = meters.computeIfAbsent(first, k -> new ConcurrentHashMap<>());
+
+            M meter = bySecond.get(second);
+            if (meter == null) meter = bySecond.computeIfAbsent(second, k -> factory.apply(first, k));
+
+            return meter;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.onidza.backend.config.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class CacheRefresher {
+
+    private final ThreadPoolTaskExecutor executor;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public CacheRefresher(
+            AppCacheProperties.Refresh properties,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+    }
+
+    public boolean refresh(String cacheName, String key, Runnable task) {
+        String id = cacheName + "::" + key;
+        if (!running.add(id)) return true;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                    count(cacheName, "refreshed");
+                } catch (RuntimeException e) {
+                    count(cacheName, "failed");
+                    log.warn("Background refresh failed, cache = {}, key = {}", cacheName, key, e);
+                } finally {
+                    running.remove(id);
+                }
+            });
+            return true;
+        } catch (TaskRejectedException e) {
+            running.remove(id);
+            count(cacheName, "rejected");
+            return false;
+        }
+    }
+
+    public Duration remainingTtl(byte[] redisKey) {
+        Long millis = stringRedisTemplate.execute(
+                (RedisCallback<Long>) connection -> connection.keyCommands().pTtl(redisKey));
+
+        return millis == null || millis < 0 ? Duration.ZERO : Duration.ofMillis(millis);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void count(String cacheName, String result) {
+        meterRegistry.counter("cache.refresh", "cache", cacheName, "result", result).increment();
+    }
+}
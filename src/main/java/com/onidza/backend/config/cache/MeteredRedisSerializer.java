@@ -0,0 +1,47 @@
+package com.onidza.backend.config.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+public class MeteredRedisSerializer<T> implements RedisSerializer<T> {
+
+    // size of the last payload handled on this thread, read right after the Redis call by the hot-key tracker
+    private static final ThreadLocal<Integer> LAST_PAYLOAD = new ThreadLocal<>();
+
+    private final RedisSerializer<T> delegate;
+    private final String cache;
+    private final CacheMetrics metrics;
+
+    public MeteredRedisSerializer(RedisSerializer<T> delegate, String cache, CacheMetrics metrics) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null) {
+            metrics.payload(cache, "write", bytes.length);
+            LAST_PAYLOAD.set(bytes.length);
+        }
+
+        return bytes;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes != null) {
+            metrics.payload(cache, "read", bytes.length);
+            LAST_PAYLOAD.set(bytes.length);
+        }
+
+        return delegate.deserialize(bytes);
+    }
+
+    public static int takeLastPayload() {
+        Integer bytes = LAST_PAYLOAD.get();
+        LAST_PAYLOAD.remove();
+
+        return bytes == null ? -1 : bytes;
+    }
+}
@@ -0,0 +1,144 @@
+package com.onidza.backend.config.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// guards every Redis call on the cache path, callers fall back to the database while it is open
+@Slf4j
+public class RedisCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final AppCacheProperties.Breaker properties;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long changedAt = System.nanoTime();
+
+    private final List<Runnable> recoveryListeners = new CopyOnWriteArrayList<>();
+
+    public RedisCircuitBreaker(AppCacheProperties.Breaker properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        for (State s : State.values()) {
+            Gauge.builder("cache.breaker.state", state, current -> current.get() == s ? 1 : 0)
+                    .tag("state", s.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    // true when a call would go to Redis, either closed or due for a trial
+    public boolean available() {
+        return !properties.isEnabled() || state.get() == State.CLOSED || openElapsed();
+    }
+
+    public void onRecovery(Runnable listener) {
+        recoveryListeners.add(listener);
+    }
+
+    public <T> T call(Supplier<T> action, Supplier<T> fallback) {
+        if (!properties.isEnabled()) return action.get();
+
+        if (!acquire()) {
+            count("bypassed");
+            return fallback.get();
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            onResult(System.nanoTime() - start);
+
+            return result;
+        } catch (DataAccessException e) {
+            onFailure("failure");
+            log.debug("Redis call failed, breaker state = {}", state.get(), e);
+
+            return fallback.get();
+        }
+    }
+
+    public boolean run(Runnable action) {
+        return call(() -> {
+            action.run();
+            return Boolean.TRUE;
+        }, () -> Boolean.FALSE);
+    }
+
+    private boolean acquire() {
+        if (state.get() == State.CLOSED) return true;
+
+        return openElapsed() && tryTrial();
+    }
+
+    // open long enough, or a trial never reported back, let one call through
+    private synchronized boolean tryTrial() {
+        if (state.get() == State.CLOSED) return true;
+        if (!openElapsed()) return false;
+
+        state.set(State.HALF_OPEN);
+        changedAt = System.nanoTime();
+
+        return true;
+    }
+
+    private boolean openElapsed() {
+        return System.nanoTime() - changedAt >= properties.getOpenDuration().toNanos();
+    }
+
+    // the command timeout already cuts a call off at the budget, this only counts calls that still
+    // ran over it, serialization and pool waits included, as failures
+    private void onResult(long nanos) {
+        if (nanos > properties.getLatencyBudget().toNanos()) {
+            onFailure("slow");
+            return;
+        }
+
+        failures.set(0);
+        if (state.compareAndSet(State.HALF_OPEN, State.CLOSED)) {
+            changedAt = System.nanoTime();
+            log.info("Redis circuit breaker closed, replaying skipped cache work");
+            count("closed");
+
+            recoveryListeners.forEach(CompletableFuture::runAsync);
+        }
+    }
+
+    private void onFailure(String result) {
+        count(result);
+
+        boolean trip = state.get() == State.HALF_OPEN
+                || failures.incrementAndGet() >= properties.getFailureThreshold();
+        if (!trip) return;
+
+        State previous = state.getAndSet(State.OPEN);
+        if (previous != State.OPEN) {
+            changedAt = System.nanoTime();
+            failures.set(0);
+            log.warn("Redis circuit breaker opened after {}, cache reads go to the database for {}",
+                    result, properties.getOpenDuration());
+            count("opened");
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cache.breaker.calls", "result", result).increment();
+    }
+}
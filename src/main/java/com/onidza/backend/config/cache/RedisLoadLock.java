@@ -0,0 +1,46 @@
+package com.onidza.backend.config.cache;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+public class RedisLoadLock {
+
+    private static final String LOCK_KEY_FORMAT = "lock:%s::%s";
+
+    private static final DefaultRedisScript<Long> RELEASE_IF_OWNER =
+            new DefaultRedisScript<>(
+                    """
+                            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                              return redis.call('DEL', KEYS[1])
+                            end
+                            return 0
+                            """,
+                    Long.class
+            );
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisLoadLock(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public String tryAcquire(String region, String key, Duration lease) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY_FORMAT.formatted(region, key), token, lease);
+
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    public void release(String region, String key, String token) {
+        stringRedisTemplate.execute(
+                RELEASE_IF_OWNER,
+                List.of(LOCK_KEY_FORMAT.formatted(region, key)),
+                token
+        );
+    }
+}
@@ -0,0 +1,528 @@
+package com.onidza.backend.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onidza.backend.config.cache.admission.CacheAdmission;
+import com.onidza.backend.config.cache.admission.FrequencySketch;
+import com.onidza.backend.config.cache.codec.CacheCodec;
+import com.onidza.backend.config.cache.codec.CacheCompression;
+import com.onidza.backend.config.cache.hotkeys.HotKeyTracker;
+import com.onidza.backend.config.cache.mode.CacheMode;
+import com.onidza.backend.config.cache.mode.CacheModeHolder;
+import com.onidza.backend.config.cache.page.PageCacheMode;
+import com.onidza.backend.config.datasource.PrimaryReads;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationBus;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationMessage;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.cache.invalidation.InvalidationReplayQueue;
+import com.onidza.backend.service.cache.warmup.CacheAccessStats;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+public class TwoTierCache implements Cache {
+
+    private static final long LOCK_POLL_INTERVAL_MS = 25;
+
+    private static final Pattern VERSION_SEGMENT = Pattern.compile("ver=\\d+:?");
+
+    // how RedisCache stores a cached null, never a response body
+    private static final byte[] NULL_VALUE = RedisSerializer.java().serialize(NullValue.INSTANCE);
+
+    private final RedisCache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final CacheInvalidationBus invalidationBus;
+    private final AppCacheProperties.Region region;
+    private final RedisLoadLock loadLock;
+    private final CacheRefresher refresher;
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // last loaded value per version-less key, served while a superseded or expired entry is rebuilt
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> stale;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Access> accesses;
+
+    // stored JSON of raw-response regions, already the HTTP response body
+    private final com.github.benmanes.caffeine.cache.Cache<String, byte[]> rawLocal;
+
+    // request frequency per version-less key, a version bump does not make a hot page cold again
+    private final FrequencySketch sketch;
+
+    private final CacheMetrics metrics;
+    private final CacheModeHolder modes;
+    private final CacheAccessStats accessStats;
+    private final RedisCircuitBreaker breaker;
+    private final InvalidationReplayQueue replayQueue;
+    private final HotKeyTracker hotKeys;
+
+    // the local tier was added only to replicate hot keys, everything else stays in Redis
+    private final boolean hotOnlyLocal;
+
+    public TwoTierCache(
+            RedisCache remote,
+            @Nullable com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            CacheInvalidationBus invalidationBus,
+            AppCacheProperties.Region region,
+            RedisLoadLock loadLock,
+            CacheRefresher refresher,
+            CacheMetrics metrics,
+            CacheModeHolder modes,
+            CacheAccessStats accessStats,
+            RedisCircuitBreaker breaker,
+            InvalidationReplayQueue replayQueue,
+            HotKeyTracker hotKeys,
+            boolean hotOnlyLocal
+    ) {
+        this.remote = remote;
+        this.local = local;
+        this.invalidationBus = invalidationBus;
+        this.region = region;
+        this.loadLock = loadLock;
+        this.refresher = refresher;
+        this.metrics = metrics;
+        this.modes = modes;
+        this.accessStats = accessStats;
+        this.breaker = breaker;
+        this.replayQueue = replayQueue;
+        this.hotKeys = hotKeys;
+        this.hotOnlyLocal = hotOnlyLocal;
+
+        this.stale = !region.isStaleWhileRevalidate() ? null : Caffeine.newBuilder()
+                .maximumSize(region.getLocalMaxSize())
+                .expireAfterWrite(remoteTtl().plus(region.getStaleTtl()))
+                .build();
+        this.accesses = !region.isRefreshAhead() ? null : Caffeine.newBuilder()
+                .maximumSize(region.getLocalMaxSize())
+                .expireAfterWrite(remoteTtl())
+                .build();
+        this.rawLocal = !rawResponse(getName(), region) ? null : Caffeine.newBuilder()
+                .maximumSize(region.getLocalMaxSize())
+                .expireAfterWrite(region.getLocalTtl())
+                .build();
+        this.sketch = region.getAdmissionMinFrequency() <= 1
+                ? null
+                : new FrequencySketch(region.getAdmissionSketchSize());
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        recordAccess(key);
+
+        MeteredRedisSerializer.takeLastPayload();
+        ValueWrapper value = lookup(key);
+        hotKeys.record(getName(), versionlessKey(key), MeteredRedisSerializer.takeLastPayload());
+
+        return value;
+    }
+
+    // a hit skips deserialization here and serialization in the controller, a miss goes through get
+    public byte[] getRaw(Object key) {
+        if (rawLocal == null) return null;
+
+        CacheMode mode = mode();
+        if (mode == CacheMode.NONE) return null;
+
+        byte[] body = mode.usesLocal() ? rawLocal.getIfPresent(localKey(key)) : null;
+        if (body != null) {
+            metrics.hit(getName(), "raw-local");
+        } else if (mode.usesRemote()) {
+            body = breaker.call(() -> remote.getNativeCache().get(getName(), remoteKey(key)), () -> null);
+            if (body == null || Arrays.equals(body, NULL_VALUE)) {
+                metrics.miss(getName(), "raw");
+                return null;
+            }
+
+            metrics.hit(getName(), "raw-remote");
+            if (mode.usesLocal()) rawLocal.put(localKey(key), body);
+        }
+        if (body == null) return null;
+
+        recordAccess(key);
+        hotKeys.record(getName(), versionlessKey(key), body.length);
+
+        return body;
+    }
+
+    private ValueWrapper lookup(Object key) {
+        CacheMode mode = mode();
+        if (mode == CacheMode.NONE) return null;
+
+        if (local != null && mode.usesLocal()) {
+            ValueWrapper localValue = getLocal(key);
+            if (localValue != null) {
+                metrics.hit(getName(), "local");
+                return localValue;
+            }
+            metrics.miss(getName(), "local");
+        }
+        if (!mode.usesRemote()) return null;
+
+        ValueWrapper remoteValue = breaker.call(() -> remote.get(key), () -> null);
+        if (remoteValue == null) {
+            metrics.miss(getName(), "remote");
+            return null;
+        }
+
+        metrics.hit(getName(), "remote");
+        if (mode.usesLocal()) putLocal(key, remoteValue.get());
+
+        return remoteValue;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) return null;
+
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (mode() == CacheMode.NONE) return (T) call(key, valueLoader);
+
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            refreshAheadIfHot(key, valueLoader);
+            return (T) cached.get();
+        }
+
+        Object staleValue = stale == null ? null : stale.getIfPresent(versionlessKey(key));
+        if (staleValue != null
+                && refresher.refresh(getName(), localKey(key),
+                modes.propagate(() -> loadCoalesced(key, valueLoader)))) {
+            metrics.staleServed(getName());
+            return (T) (staleValue == NullValue.INSTANCE ? null : staleValue);
+        }
+
+        return (T) loadCoalesced(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        // with caching off a write only has to keep other callers from reading the old value
+        if (mode() == CacheMode.NONE) {
+            evict(key);
+            return;
+        }
+
+        // page fills go through the same admission gate as loads; a skipped write leaves no older
+        // value behind because a versioned key names exactly one version of the data
+        boolean admitted = admits(key);
+        if (sketch != null) metrics.admission(getName(), admitted);
+        if (admitted && !breaker.run(() -> remote.put(key, value))) replayEviction(key);
+        putLocal(key, value);
+
+        // a versioned key is new with every bump, so no peer holds an entry for it yet; only an
+        // overwrite of an unversioned entity key can leave a stale copy in another node's L1
+        if (!versioned(key)) invalidationBus.publish(CacheInvalidationMessage.evict(getName(), localKey(key)));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        if (mode() == CacheMode.NONE) return null;
+
+        ValueWrapper existing = breaker.call(() -> remote.putIfAbsent(key, value), () -> null);
+        putLocal(key, existing == null ? value : existing.get());
+
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        metrics.evicted(getName(), "evict", 1);
+        if (!breaker.run(() -> remote.evict(key))) replayEviction(key);
+        evictLocal(localKey(key));
+        invalidationBus.publish(CacheInvalidationMessage.evict(getName(), localKey(key)));
+    }
+
+    @Override
+    public void clear() {
+        if (!breaker.run(remote::clear)) replayQueue.requestClearAll();
+        clearLocal();
+        invalidationBus.publish(CacheInvalidationMessage.clear(getName()));
+    }
+
+    public void evictLocal(String key) {
+        if (local != null) local.invalidate(key);
+        if (rawLocal != null) rawLocal.invalidate(key);
+        if (stale != null) stale.invalidate(versionlessKey(key));
+        if (accesses != null) accesses.invalidate(key);
+    }
+
+    public void clearLocal() {
+        if (local != null) local.invalidateAll();
+        if (rawLocal != null) rawLocal.invalidateAll();
+        if (stale != null) stale.invalidateAll();
+        if (accesses != null) accesses.invalidateAll();
+    }
+
+    public byte[] remoteKey(Object key) {
+        RedisCacheConfiguration config = remote.getCacheConfiguration();
+        String cacheKey = config.getKeyPrefixFor(getName()) + key;
+
+        return ByteUtils.getBytes(config.getKeySerializationPair().write(cacheKey));
+    }
+
+    private Object loadCoalesced(Object key, Callable<?> valueLoader) {
+        if (!region.isSingleFlight()) return loadWithLease(key, valueLoader);
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(localKey(key), load);
+        if (leader != null) return awaitLeader(leader, key, valueLoader);
+
+        try {
+            Object value = loadWithLease(key, valueLoader);
+            load.complete(value);
+
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey(key), load);
+        }
+    }
+
+    private void refreshAheadIfHot(Object key, Callable<?> valueLoader) {
+        if (accesses == null) return;
+
+        Access access = accesses.get(localKey(key), k -> new Access());
+        if (access.hits.incrementAndGet() < region.getRefreshMinHits()) return;
+
+        if (access.expiresAt == null) {
+            Duration remaining = breaker.call(() -> refresher.remainingTtl(remoteKey(key)), this::remoteTtl);
+            access.expiresAt = System.nanoTime() + remaining.toNanos();
+        }
+
+        long refreshWindow = (long) (remoteTtl().toNanos() * (1 - region.getRefreshAheadFactor()));
+        if (System.nanoTime() < access.expiresAt - refreshWindow) return;
+
+        refresher.refresh(getName(), localKey(key), modes.propagate(() -> loadCoalesced(key, valueLoader)));
+    }
+
+    private Object awaitLeader(CompletableFuture<Object> leader, Object key, Callable<?> valueLoader) {
+        try {
+            Object value = leader.get(region.getLockLease().toMillis(), TimeUnit.MILLISECONDS);
+            metrics.coalesced(getName(), "local");
+
+            return value;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        } catch (TimeoutException e) {
+            return loadWithLease(key, valueLoader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    private Object loadWithLease(Object key, Callable<?> valueLoader) {
+        // nobody would find a rejected value in Redis, so there is nothing to wait for
+        if (!region.isDistributedLock() || !mode().usesRemote() || !admits(key)) {
+            return load(key, valueLoader);
+        }
+
+        Optional<String> lease = breaker.call(
+                () -> Optional.ofNullable(loadLock.tryAcquire(getName(), localKey(key), region.getLockLease())),
+                () -> null);
+        if (lease == null) return load(key, valueLoader);
+
+        if (lease.isEmpty()) {
+            ValueWrapper loadedElsewhere = awaitRemote(key);
+            if (loadedElsewhere != null) {
+                metrics.coalesced(getName(), "distributed");
+                return loadedElsewhere.get();
+            }
+
+            return load(key, valueLoader);
+        }
+
+        try {
+            return load(key, valueLoader);
+        } finally {
+            breaker.run(() -> loadLock.release(getName(), localKey(key), lease.get()));
+        }
+    }
+
+    private ValueWrapper awaitRemote(Object key) {
+        long deadline = System.nanoTime() + region.getLockLease().toNanos();
+
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            if (!breaker.available()) return null;
+
+            ValueWrapper value = breaker.call(() -> remote.get(key), () -> null);
+            if (value != null) {
+                putLocal(key, value.get());
+                return value;
+            }
+        }
+
+        return null;
+    }
+
+    // a cached value outlives the version bump of the write before it, so it is never read from
+    // a replica that may not have replayed that write yet
+    private Object load(Object key, Callable<?> valueLoader) {
+        Object value = PrimaryReads.get(() -> call(key, valueLoader));
+
+        CacheMode mode = mode();
+        if (mode.usesRemote()) {
+            boolean admitted = admits(key);
+            if (sketch != null) metrics.admission(getName(), admitted);
+            if (admitted) breaker.run(() -> remote.put(key, value));
+        }
+        if (mode.usesLocal()) putLocal(key, value);
+        if (stale != null) stale.put(versionlessKey(key), value == null ? NullValue.INSTANCE : value);
+        if (accesses != null) accesses.put(localKey(key), new Access(System.nanoTime() + remoteTtl().toNanos()));
+
+        return value;
+    }
+
+    private void recordAccess(Object key) {
+        accessStats.record(getName(), key);
+        if (sketch != null) sketch.increment(versionlessKey(key));
+    }
+
+    private boolean admits(Object key) {
+        if (sketch == null || CacheAdmission.bypassed()) return true;
+
+        return sketch.frequency(versionlessKey(key)) >= region.getAdmissionMinFrequency();
+    }
+
+    private Object call(Object key, Callable<?> valueLoader) {
+        Timer.Sample sample = metrics.startLoad();
+
+        try {
+            Object value = valueLoader.call();
+            metrics.stopLoad(sample, getName(), true);
+
+            return value;
+        } catch (Exception e) {
+            metrics.stopLoad(sample, getName(), false);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // with Redis unreachable neither tier can be trusted, peers may have missed evictions
+    CacheMode mode() {
+        return breaker.available() ? modes.current() : CacheMode.NONE;
+    }
+
+    private void replayEviction(Object key) {
+        replayQueue.add(InvalidationPlan.builder().evict(getName(), key).build());
+    }
+
+    Duration remoteTtl() {
+        return remote.getCacheConfiguration().getTtlFunction().getTimeToLive(Object.class, null);
+    }
+
+    Object deserialize(byte[] bytes) {
+        return remote.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(bytes));
+    }
+
+    byte[] serialize(Object value) {
+        return ByteUtils.getBytes(remote.getCacheConfiguration().getValueSerializationPair().write(value));
+    }
+
+    ValueWrapper getLocal(Object key) {
+        if (local == null) return null;
+
+        Object value = local.getIfPresent(localKey(key));
+        if (value == null) return null;
+
+        return new SimpleValueWrapper(value == NullValue.INSTANCE ? null : value);
+    }
+
+    void putLocal(Object key, @Nullable Object value) {
+        // the raw body belongs to the value being replaced
+        if (rawLocal != null) rawLocal.invalidate(localKey(key));
+        if (local == null) return;
+        if (hotOnlyLocal && !hotKeys.isHot(getName(), versionlessKey(key))) return;
+
+        local.put(localKey(key), value == null ? NullValue.INSTANCE : value);
+    }
+
+    // only a plain JSON blob is byte-for-byte the body Spring MVC would write
+    private static boolean rawResponse(String name, AppCacheProperties.Region region) {
+        if (!region.isRawResponse()) return false;
+
+        if (region.getCodec() != CacheCodec.JSON
+                || region.getCompression() != CacheCompression.NONE
+                || region.getPageMode() != PageCacheMode.BLOB) {
+            throw new IllegalStateException(
+                    "Region " + name + " has raw-response on, it needs the json codec, no compression and blob pages");
+        }
+
+        return true;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    static String versionlessKey(Object key) {
+        return VERSION_SEGMENT.matcher(localKey(key)).replaceAll("");
+    }
+
+    private static boolean versioned(Object key) {
+        return VERSION_SEGMENT.matcher(localKey(key)).find();
+    }
+
+    private static final class Access {
+        private final AtomicInteger hits = new AtomicInteger();
+        private volatile Long expiresAt;
+
+        private Access() {
+        }
+
+        private Access(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
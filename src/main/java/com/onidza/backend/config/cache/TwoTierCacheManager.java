@@ -0,0 +1,250 @@
+package com.onidza.backend.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.onidza.backend.config.cache.hotkeys.HotKeyTracker;
+import com.onidza.backend.config.cache.mode.CacheMode;
+import com.onidza.backend.config.cache.mode.CacheModeHolder;
+import com.onidza.backend.config.cache.page.IdListPageCache;
+import com.onidza.backend.config.cache.page.IdListPageSupport;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationBus;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationMessage;
+import com.onidza.backend.service.cache.invalidation.InvalidationReplayQueue;
+import com.onidza.backend.service.cache.warmup.CacheAccessStats;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class TwoTierCacheManager implements CacheManager {
+
+    private final RedisCacheManager remote;
+    private final AppCacheProperties properties;
+    private final CacheInvalidationBus invalidationBus;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisLoadLock loadLock;
+    private final CacheRefresher refresher;
+    private final CacheMetrics metrics;
+    private final CacheModeHolder modes;
+    private final CacheAccessStats accessStats;
+    private final RedisCircuitBreaker breaker;
+    private final InvalidationReplayQueue replayQueue;
+    private final HotKeyTracker hotKeys;
+
+    private final Map<String, IdListPageSupport<?, ?>> idListPages = new HashMap<>();
+
+    private final ConcurrentMap<String, TwoTierCache> tiers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> decorated = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(
+            RedisCacheManager remote,
+            AppCacheProperties properties,
+            CacheInvalidationBus invalidationBus,
+            StringRedisTemplate stringRedisTemplate,
+            CacheRefresher refresher,
+            CacheMetrics metrics,
+            CacheModeHolder modes,
+            CacheAccessStats accessStats,
+            RedisCircuitBreaker breaker,
+            InvalidationReplayQueue replayQueue,
+            HotKeyTracker hotKeys,
+            List<IdListPageSupport<?, ?>> idListPageSupports
+    ) {
+        this.remote = remote;
+        this.properties = properties;
+        this.invalidationBus = invalidationBus;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.loadLock = new RedisLoadLock(stringRedisTemplate);
+        this.refresher = refresher;
+        this.metrics = metrics;
+        this.modes = modes;
+        this.accessStats = accessStats;
+        this.breaker = breaker;
+        this.replayQueue = replayQueue;
+        this.hotKeys = hotKeys;
+
+        idListPageSupports.forEach(support ->
+                support.pageRegions().forEach(region -> idListPages.put(region, support)));
+
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache tier = getTier(name);
+        if (tier == null) return null;
+
+        return decorated.computeIfAbsent(name, n -> new TransactionAwareCacheDecorator(idListPage(n, tier)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public byte[] remoteKey(String name, Object key) {
+        TwoTierCache tier = getTier(name);
+        if (tier == null) throw new IllegalArgumentException("Unknown cache region = " + name);
+
+        return tier.remoteKey(key);
+    }
+
+    public byte[] getRaw(String name, Object key) {
+        TwoTierCache tier = getTier(name);
+        if (tier == null) throw new IllegalArgumentException("Unknown cache region = " + name);
+
+        return tier.getRaw(key);
+    }
+
+    public Map<Object, Object> getAll(String name, Collection<?> keys) {
+        TwoTierCache tier = getTier(name);
+        if (tier == null) throw new IllegalArgumentException("Unknown cache region = " + name);
+
+        Map<Object, Object> found = new LinkedHashMap<>();
+        CacheMode mode = tier.mode();
+        if (mode == CacheMode.NONE) return found;
+
+        List<Object> remoteKeys = new ArrayList<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper local = mode.usesLocal() ? tier.getLocal(key) : null;
+            if (local != null && local.get() != null) {
+                found.put(key, local.get());
+            } else {
+                remoteKeys.add(key);
+            }
+        }
+        if (remoteKeys.isEmpty() || !mode.usesRemote()) return found;
+
+        byte[][] rawKeys = remoteKeys.stream().map(tier::remoteKey).toArray(byte[][]::new);
+        List<byte[]> values = breaker.call(() -> stringRedisTemplate.execute(
+                (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(rawKeys)), () -> null);
+        if (values == null) return found;
+
+        for (int i = 0; i < remoteKeys.size(); i++) {
+            Object value = values.get(i) == null ? null : tier.deserialize(values.get(i));
+            if (value == null) continue;
+
+            if (mode.usesLocal()) tier.putLocal(remoteKeys.get(i), value);
+            found.put(remoteKeys.get(i), value);
+        }
+
+        return found;
+    }
+
+    public void putAll(String name, Map<?, ?> values) {
+        TwoTierCache tier = getTier(name);
+        if (tier == null) throw new IllegalArgumentException("Unknown cache region = " + name);
+        CacheMode mode = tier.mode();
+        if (values.isEmpty() || mode == CacheMode.NONE) return;
+
+        if (mode.usesLocal()) values.forEach(tier::putLocal);
+        if (!mode.usesRemote()) return;
+
+        Expiration expiration = Expiration.from(tier.remoteTtl());
+        Map<byte[], byte[]> raw = new LinkedHashMap<>();
+        values.forEach((key, value) -> raw.put(tier.remoteKey(key), tier.serialize(value)));
+
+        breaker.run(() -> stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            raw.forEach((key, value) -> connection.stringCommands()
+                    .set(key, value, expiration, RedisStringCommands.SetOption.upsert()));
+            return null;
+        }));
+    }
+
+    public void evictLocal(String name, Object key) {
+        TwoTierCache tier = tiers.get(name);
+        if (tier != null) tier.evictLocal(String.valueOf(key));
+    }
+
+    private TwoTierCache getTier(String name) {
+        TwoTierCache tier = tiers.get(name);
+        if (tier != null) return tier;
+
+        if (!(remote.getCache(name) instanceof RedisCache redisCache)) return null;
+
+        return tiers.computeIfAbsent(name, n -> new TwoTierCache(
+                redisCache,
+                buildLocal(n, properties.getRegion(n)),
+                invalidationBus,
+                properties.getRegion(n),
+                loadLock,
+                refresher,
+                metrics,
+                modes,
+                accessStats,
+                breaker,
+                replayQueue,
+                hotKeys,
+                promotesHotKeys(properties.getRegion(n))
+        ));
+    }
+
+    private Cache idListPage(String name, TwoTierCache tier) {
+        if (!properties.isIdListPage(name)) return tier;
+
+        IdListPageSupport<?, ?> support = idListPages.get(name);
+        if (support == null) {
+            throw new IllegalStateException("Region " + name + " has no id-list page support");
+        }
+
+        return new IdListPageCache<>(tier, support, this);
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<String, Object> buildLocal(
+            String name,
+            AppCacheProperties.Region region
+    ) {
+        if (!region.isLocalEnabled() && !promotesHotKeys(region)) return null;
+
+        long maxSize = region.isLocalEnabled()
+                ? region.getLocalMaxSize()
+                : properties.getHotKeys().getPromoteMaxSize();
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(region.getLocalTtl())
+                .removalListener((String key, Object value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) metrics.evicted(name, "size", 1);
+                })
+                .build();
+        metrics.bindLocal(name, local);
+
+        return local;
+    }
+
+    // regions without a local tier still get one for their hot keys, so a single Redis shard is not hammered
+    private boolean promotesHotKeys(AppCacheProperties.Region region) {
+        AppCacheProperties.HotKeys config = properties.getHotKeys();
+
+        return !region.isLocalEnabled() && config.isEnabled() && config.isPromote();
+    }
+
+    private void onInvalidation(CacheInvalidationMessage message) {
+        message.clearedRegions().forEach(region -> {
+            TwoTierCache tier = tiers.get(region);
+            if (tier != null) tier.clearLocal();
+        });
+
+        message.evictions().forEach((region, keys) -> {
+            TwoTierCache tier = tiers.get(region);
+            if (tier == null) return;
+
+            keys.forEach(tier::evictLocal);
+            metrics.evicted(region, "peer", keys.size());
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.onidza.backend.config.cache.admission;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class CacheAdmission {
+
+    private static final ThreadLocal<Boolean> BYPASS = new ThreadLocal<>();
+
+    // writes made inside the runnable skip the frequency check, e.g. warm-up of known hot keys
+    public static void admitAll(Runnable runnable) {
+        Boolean previous = BYPASS.get();
+        BYPASS.set(Boolean.TRUE);
+        try {
+            runnable.run();
+        } finally {
+            if (previous == null) BYPASS.remove();
+            else BYPASS.set(previous);
+        }
+    }
+
+    public static boolean bypassed() {
+        return BYPASS.get() != null;
+    }
+}
@@ -0,0 +1,68 @@
+package com.onidza.backend.config.cache.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// count-min sketch with 4-bit saturating counters and periodic halving, as in TinyLFU
+public class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private static final int MAX_COUNT = 15;
+
+    private final AtomicIntegerArray[] rows = new AtomicIntegerArray[SEEDS.length];
+    private final int mask;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    public FrequencySketch(int expectedKeys) {
+        int width = Integer.highestOneBit(Math.max(expectedKeys, 16) - 1) << 1;
+
+        for (int i = 0; i < rows.length; i++) rows[i] = new AtomicIntegerArray(width);
+        this.mask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    public void increment(Object key) {
+        int hash = spread(key.hashCode());
+        for (int i = 0; i < rows.length; i++) {
+            AtomicIntegerArray row = rows[i];
+            int index = index(hash, i);
+            row.getAndUpdate(index, count -> Math.min(count + 1, MAX_COUNT));
+        }
+
+        if (additions.incrementAndGet() >= sampleSize) reset();
+    }
+
+    public int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < rows.length; i++) {
+            frequency = Math.min(frequency, rows[i].get(index(hash, i)));
+        }
+
+        return frequency;
+    }
+
+    // halving keeps the sketch following the current popularity instead of all-time counts
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) return;
+
+        for (AtomicIntegerArray row : rows) {
+            for (int i = 0; i < row.length(); i++) row.getAndUpdate(i, count -> count >>> 1);
+        }
+        additions.set(0);
+    }
+
+    private int index(int hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,12 @@
+package com.onidza.backend.config.cache.codec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public interface BinaryCodec<T> {
+
+    void write(T value, DataOutputStream out) throws IOException;
+
+    T read(DataInputStream in) throws IOException;
+}
@@ -0,0 +1,47 @@
+package com.onidza.backend.config.cache.codec;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public class BinaryRedisSerializer<T> implements RedisSerializer<T> {
+
+    private final BinaryCodec<T> codec;
+
+    public BinaryRedisSerializer(BinaryCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        if (value == null) return null;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DtoBinaryCodecs.SCHEMA_VERSION);
+            codec.write(value, out);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to encode cache value", e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0 || bytes[0] != DtoBinaryCodecs.SCHEMA_VERSION) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1))) {
+            return codec.read(in);
+        } catch (IOException e) {
+            throw new SerializationException("Failed to decode cache value", e);
+        }
+    }
+}
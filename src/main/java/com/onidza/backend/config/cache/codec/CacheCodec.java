@@ -0,0 +1,6 @@
+package com.onidza.backend.config.cache.codec;
+
+public enum CacheCodec {
+    JSON,
+    BINARY
+}
@@ -0,0 +1,7 @@
+package com.onidza.backend.config.cache.codec;
+
+public enum CacheCompression {
+    NONE,
+    LZ4,
+    ZSTD
+}
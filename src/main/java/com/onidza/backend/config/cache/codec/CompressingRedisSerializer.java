@@ -0,0 +1,80 @@
+package com.onidza.backend.config.cache.codec;
+
+import com.github.luben.zstd.Zstd;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    // far above any binary schema version and any first byte of JSON, so an unframed payload
+    // written by an instance without compression is read as a miss instead of a frame
+    private static final byte PLAIN = (byte) 0xF1;
+    private static final byte LZ4 = (byte) 0xF2;
+    private static final byte ZSTD = (byte) 0xF3;
+
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+    private static final int ZSTD_LEVEL = 3;
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+
+    private final RedisSerializer<T> payload;
+    private final CacheCompression compression;
+    private final int threshold;
+
+    public CompressingRedisSerializer(RedisSerializer<T> payload, CacheCompression compression, int threshold) {
+        this.payload = payload;
+        this.compression = compression;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public byte[] serialize(T value) {
+        byte[] raw = payload.serialize(value);
+        if (raw == null) return null;
+
+        if (raw.length < threshold) return frame(PLAIN, raw.length, raw, raw.length);
+
+        return switch (compression) {
+            case NONE -> frame(PLAIN, raw.length, raw, raw.length);
+            case LZ4 -> {
+                byte[] compressed = new byte[LZ4_COMPRESSOR.maxCompressedLength(raw.length)];
+                int length = LZ4_COMPRESSOR.compress(raw, 0, raw.length, compressed, 0, compressed.length);
+                yield frame(LZ4, raw.length, compressed, length);
+            }
+            case ZSTD -> {
+                byte[] compressed = Zstd.compress(raw, ZSTD_LEVEL);
+                yield frame(ZSTD, raw.length, compressed, compressed.length);
+            }
+        };
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE) return null;
+
+        int rawLength = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+
+        byte[] raw = switch (bytes[0]) {
+            case PLAIN -> Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length);
+            case LZ4 -> LZ4_DECOMPRESSOR.decompress(bytes, HEADER_SIZE, rawLength);
+            case ZSTD -> Zstd.decompress(Arrays.copyOfRange(bytes, HEADER_SIZE, bytes.length), rawLength);
+            default -> null;
+        };
+
+        return raw == null ? null : payload.deserialize(raw);
+    }
+
+    private static byte[] frame(byte format, int rawLength, byte[] body, int bodyLength) {
+        return ByteBuffer.allocate(HEADER_SIZE + bodyLength)
+                .put(format)
+                .putInt(rawLength)
+                .put(body, 0, bodyLength)
+                .array();
+    }
+}
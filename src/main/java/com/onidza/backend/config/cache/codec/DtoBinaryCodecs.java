@@ -0,0 +1,369 @@
+package com.onidza.backend.config.cache.codec;
+
+import com.onidza.backend.config.cache.page.IdPage;
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.dto.order.OrdersPageDTO;
+import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.dto.profile.ProfilesPageDTO;
+import com.onidza.backend.model.enums.OrderStatus;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DtoBinaryCodecs {
+
+    // bump on any layout change below, entries written with another version are read as misses
+    public static final byte SCHEMA_VERSION = 2;
+
+    private static final int MAX_DECIMAL_BYTES = 0xFFFF;
+
+    private static final OrderStatus[] ORDER_STATUSES = OrderStatus.values();
+
+    public static final BinaryCodec<OrderDTO> ORDER = new BinaryCodec<>() {
+        @Override
+        public void write(OrderDTO value, DataOutputStream out) throws IOException {
+            writeLong(value.id(), out);
+            writeDateTime(value.orderDate(), out);
+            writeDecimal(value.totalAmount(), out);
+            out.writeByte(value.status() == null ? -1 : value.status().ordinal());
+            writeLong(value.clientId(), out);
+        }
+
+        @Override
+        public OrderDTO read(DataInputStream in) throws IOException {
+            Long id = readLong(in);
+            LocalDateTime orderDate = readDateTime(in);
+            BigDecimal totalAmount = readDecimal(in);
+            byte status = in.readByte();
+            Long clientId = readLong(in);
+
+            return new OrderDTO(
+                    id,
+                    orderDate,
+                    totalAmount,
+                    status < 0 ? null : ORDER_STATUSES[status],
+                    clientId
+            );
+        }
+    };
+
+    public static final BinaryCodec<CouponDTO> COUPON = new BinaryCodec<>() {
+        @Override
+        public void write(CouponDTO value, DataOutputStream out) throws IOException {
+            writeLong(value.id(), out);
+            writeString(value.code(), out);
+            out.writeFloat(value.discount());
+            writeDateTime(value.expirationDate(), out);
+            writeList(value.clientsId(), DtoBinaryCodecs::writeLong, out);
+        }
+
+        @Override
+        public CouponDTO read(DataInputStream in) throws IOException {
+            return new CouponDTO(
+                    readLong(in),
+                    readString(in),
+                    in.readFloat(),
+                    readDateTime(in),
+                    readList(in, DtoBinaryCodecs::readLong)
+            );
+        }
+    };
+
+    public static final BinaryCodec<ProfileDTO> PROFILE = new BinaryCodec<>() {
+        @Override
+        public void write(ProfileDTO value, DataOutputStream out) throws IOException {
+            writeLong(value.id(), out);
+            writeString(value.address(), out);
+            writeString(value.phone(), out);
+            writeLong(value.clientId(), out);
+        }
+
+        @Override
+        public ProfileDTO read(DataInputStream in) throws IOException {
+            return new ProfileDTO(
+                    readLong(in),
+                    readString(in),
+                    readString(in),
+                    readLong(in)
+            );
+        }
+    };
+
+    public static final BinaryCodec<ClientDTO> CLIENT = new BinaryCodec<>() {
+        @Override
+        public void write(ClientDTO value, DataOutputStream out) throws IOException {
+            writeLong(value.id(), out);
+            writeString(value.name(), out);
+            writeString(value.email(), out);
+            writeDateTime(value.registrationDate(), out);
+            writeNullable(value.profile(), PROFILE, out);
+            writeList(value.orders(), ORDER::write, out);
+            writeList(value.coupons(), COUPON::write, out);
+        }
+
+        @Override
+        public ClientDTO read(DataInputStream in) throws IOException {
+            return new ClientDTO(
+                    readLong(in),
+                    readString(in),
+                    readString(in),
+                    readDateTime(in),
+                    readNullable(in, PROFILE),
+                    readList(in, ORDER::read),
+                    readList(in, COUPON::read)
+            );
+        }
+    };
+
+    public static final BinaryCodec<OrdersPageDTO> ORDERS_PAGE = new BinaryCodec<>() {
+        @Override
+        public void write(OrdersPageDTO value, DataOutputStream out) throws IOException {
+            writeList(value.items(), ORDER::write, out);
+            writePaging(value.page(), value.size(), value.totalElements(), value.totalPages(), value.hasNext(), out);
+        }
+
+        @Override
+        public OrdersPageDTO read(DataInputStream in) throws IOException {
+            return new OrdersPageDTO(
+                    readList(in, ORDER::read),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readBoolean()
+            );
+        }
+    };
+
+    public static final BinaryCodec<CouponPageDTO> COUPON_PAGE = new BinaryCodec<>() {
+        @Override
+        public void write(CouponPageDTO value, DataOutputStream out) throws IOException {
+            writeList(value.items(), COUPON::write, out);
+            writePaging(value.page(), value.size(), value.totalElements(), value.totalPages(), value.hasNext(), out);
+        }
+
+        @Override
+        public CouponPageDTO read(DataInputStream in) throws IOException {
+            return new CouponPageDTO(
+                    readList(in, COUPON::read),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readBoolean()
+            );
+        }
+    };
+
+    public static final BinaryCodec<ProfilesPageDTO> PROFILES_PAGE = new BinaryCodec<>() {
+        @Override
+        public void write(ProfilesPageDTO value, DataOutputStream out) throws IOException {
+            writeList(value.items(), PROFILE::write, out);
+            writePaging(value.page(), value.size(), value.totalElements(), value.totalPages(), value.hasNext(), out);
+        }
+
+        @Override
+        public ProfilesPageDTO read(DataInputStream in) throws IOException {
+            return new ProfilesPageDTO(
+                    readList(in, PROFILE::read),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readBoolean()
+            );
+        }
+    };
+
+    public static final BinaryCodec<ClientsPageDTO> CLIENTS_PAGE = new BinaryCodec<>() {
+        @Override
+        public void write(ClientsPageDTO value, DataOutputStream out) throws IOException {
+            writeList(value.items(), CLIENT::write, out);
+            writePaging(value.page(), value.size(), value.totalElements(), value.totalPages(), value.hasNext(), out);
+        }
+
+        @Override
+        public ClientsPageDTO read(DataInputStream in) throws IOException {
+            return new ClientsPageDTO(
+                    readList(in, CLIENT::read),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readBoolean()
+            );
+        }
+    };
+
+    public static final BinaryCodec<IdPage> ID_PAGE = new BinaryCodec<>() {
+        @Override
+        public void write(IdPage value, DataOutputStream out) throws IOException {
+            writeList(value.ids(), DtoBinaryCodecs::writeLong, out);
+            writePaging(value.page(), value.size(), value.totalElements(), value.totalPages(), value.hasNext(), out);
+        }
+
+        @Override
+        public IdPage read(DataInputStream in) throws IOException {
+            return new IdPage(
+                    readList(in, DtoBinaryCodecs::readLong),
+                    in.readInt(),
+                    in.readInt(),
+                    in.readLong(),
+                    in.readInt(),
+                    in.readBoolean()
+            );
+        }
+    };
+
+    private static final Map<Class<?>, BinaryCodec<?>> CODECS = Map.of(
+            OrderDTO.class, ORDER,
+            CouponDTO.class, COUPON,
+            ProfileDTO.class, PROFILE,
+            ClientDTO.class, CLIENT,
+            OrdersPageDTO.class, ORDERS_PAGE,
+            CouponPageDTO.class, COUPON_PAGE,
+            ProfilesPageDTO.class, PROFILES_PAGE,
+            ClientsPageDTO.class, CLIENTS_PAGE,
+            IdPage.class, ID_PAGE
+    );
+
+    @SuppressWarnings("unchecked")
+    public static <T> BinaryCodec<T> forType(Class<T> type) {
+        BinaryCodec<?> codec = CODECS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("No binary cache codec for type = " + type.getName());
+        }
+
+        return (BinaryCodec<T>) codec;
+    }
+
+    @FunctionalInterface
+    private interface Writer<T> {
+        void write(T value, DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static void writePaging(
+            int page,
+            int size,
+            long totalElements,
+            int totalPages,
+            boolean hasNext,
+            DataOutputStream out
+    ) throws IOException {
+        out.writeInt(page);
+        out.writeInt(size);
+        out.writeLong(totalElements);
+        out.writeInt(totalPages);
+        out.writeBoolean(hasNext);
+    }
+
+    private static <T> void writeNullable(T value, BinaryCodec<T> codec, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) codec.write(value, out);
+    }
+
+    private static <T> T readNullable(DataInputStream in, BinaryCodec<T> codec) throws IOException {
+        return in.readBoolean() ? codec.read(in) : null;
+    }
+
+    private static <T> void writeList(List<T> values, Writer<T> writer, DataOutputStream out) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+
+        out.writeInt(values.size());
+        for (T value : values) {
+            writer.write(value, out);
+        }
+    }
+
+    private static <T> List<T> readList(DataInputStream in, Reader<T> reader) throws IOException {
+        int size = in.readInt();
+        if (size < 0) return null;
+
+        List<T> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(reader.read(in));
+        }
+
+        return Collections.unmodifiableList(values);
+    }
+
+    private static void writeLong(Long value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeLong(value);
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(String value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) out.writeUTF(value);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDateTime(LocalDateTime value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) return;
+
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeDecimal(BigDecimal value, DataOutputStream out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value == null) return;
+
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        if (unscaled.length > MAX_DECIMAL_BYTES) {
+            throw new IOException("Decimal too long to cache, unscaled bytes = " + unscaled.length);
+        }
+
+        out.writeInt(value.scale());
+        out.writeShort(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) return null;
+
+        int scale = in.readInt();
+        byte[] unscaled = new byte[in.readUnsignedShort()];
+        in.readFully(unscaled);
+
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -0,0 +1,10 @@
+package com.onidza.backend.config.cache.hotkeys;
+
+public record HotKey(
+        String key,
+        double requestsPerSecond,
+        double errorPerSecond,
+        Long avgPayloadBytes,
+        boolean hot
+) {
+}
@@ -0,0 +1,101 @@
+package com.onidza.backend.config.cache.hotkeys;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+// heavy hitters per region over fixed windows, the last complete window is what gets reported
+@Component
+public class HotKeyTracker {
+
+    private final AppCacheProperties.HotKeys properties;
+
+    private final ConcurrentMap<String, Window> current = new ConcurrentHashMap<>();
+    private volatile Map<String, Window> previous = Map.of();
+    private volatile Map<String, Set<String>> hot = Map.of();
+
+    public HotKeyTracker(AppCacheProperties cacheProperties) {
+        this.properties = cacheProperties.getHotKeys();
+    }
+
+    public void record(String region, Object key, int payloadBytes) {
+        if (!properties.isEnabled()) return;
+
+        current.computeIfAbsent(region, r -> new Window(properties.getCapacity()))
+                .sketch
+                .offer(String.valueOf(key), payloadBytes);
+    }
+
+    public boolean isHot(String region, Object key) {
+        Set<String> keys = hot.get(region);
+        return keys != null && keys.contains(String.valueOf(key));
+    }
+
+    public Map<String, List<HotKey>> top() {
+        Map<String, List<HotKey>> top = new LinkedHashMap<>();
+        reported().forEach((region, window) -> top.put(region, top(window)));
+
+        return top;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.cache.hot-keys.window:10s}",
+            initialDelayString = "${app.cache.hot-keys.window:10s}"
+    )
+    public void rotate() {
+        Map<String, Window> completed = new LinkedHashMap<>();
+        current.keySet().forEach(region -> {
+            Window window = current.remove(region);
+            if (window == null) return;
+
+            window.endedAt = System.nanoTime();
+            completed.put(region, window);
+        });
+
+        previous = completed;
+        hot = completed.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, e -> hotKeys(e.getValue())));
+    }
+
+    private Set<String> hotKeys(Window window) {
+        return top(window)
+                .stream()
+                .filter(HotKey::hot)
+                .map(HotKey::key)
+                .collect(Collectors.toSet());
+    }
+
+    private List<HotKey> top(Window window) {
+        return window.top(properties.getTopN(), properties.getHotRate());
+    }
+
+    private Map<String, Window> reported() {
+        return previous.isEmpty() ? current : previous;
+    }
+
+    private static final class Window {
+        private final SpaceSaving sketch;
+        private final long startedAt = System.nanoTime();
+        private volatile long endedAt;
+
+        private Window(int capacity) {
+            this.sketch = new SpaceSaving(capacity);
+        }
+
+        // a window is measured from its first request, so a quiet start does not dilute the rates
+        private List<HotKey> top(int limit, double hotRate) {
+            long end = endedAt == 0 ? System.nanoTime() : endedAt;
+            double seconds = Math.max((end - startedAt) / 1e9, 1);
+            return sketch.top(limit, seconds, hotRate);
+        }
+    }
+}
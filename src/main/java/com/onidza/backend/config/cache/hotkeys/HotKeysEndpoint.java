@@ -0,0 +1,22 @@
+package com.onidza.backend.config.cache.hotkeys;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final HotKeyTracker hotKeyTracker;
+
+    @ReadOperation
+    public Map<String, List<HotKey>> hotKeys() {
+        return hotKeyTracker.top();
+    }
+}
@@ -0,0 +1,65 @@
+package com.onidza.backend.config.cache.hotkeys;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// striped lossy ring buffers in front of the sketch, writers only CAS their own stripe and drop when it is full
+final class OfferBuffer {
+
+    private static final int STRIPE_SIZE = 128;
+    private static final int MASK = STRIPE_SIZE - 1;
+
+    private final Stripe[] stripes;
+
+    OfferBuffer() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) stripes[i] = new Stripe();
+    }
+
+    // true once the caller's stripe is half full and worth draining
+    boolean add(Offer offer) {
+        Stripe stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+
+        long tail = stripe.writes.get();
+        long size = tail - stripe.reads;
+        if (size >= STRIPE_SIZE) return true;
+
+        if (stripe.writes.compareAndSet(tail, tail + 1)) {
+            stripe.buffer.lazySet((int) tail & MASK, offer);
+        }
+
+        return size + 1 >= STRIPE_SIZE / 2;
+    }
+
+    // single drainer, callers hold the sketch lock
+    void drain(Consumer<Offer> consumer) {
+        for (Stripe stripe : stripes) {
+            long head = stripe.reads;
+            long tail = stripe.writes.get();
+
+            while (head < tail) {
+                int index = (int) head & MASK;
+                Offer offer = stripe.buffer.get(index);
+                // claimed but not yet published, picked up on the next drain
+                if (offer == null) break;
+
+                stripe.buffer.lazySet(index, null);
+                consumer.accept(offer);
+                head++;
+            }
+
+            stripe.reads = head;
+        }
+    }
+
+    record Offer(String key, int payloadBytes) {
+    }
+
+    private static final class Stripe {
+        private final AtomicReferenceArray<Offer> buffer = new AtomicReferenceArray<>(STRIPE_SIZE);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+    }
+}
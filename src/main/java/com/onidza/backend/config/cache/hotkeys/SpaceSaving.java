@@ -0,0 +1,102 @@
+package com.onidza.backend.config.cache.hotkeys;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Space-Saving heavy hitters: a fixed number of counters, a new key takes over the smallest one;
+// reads only append to a buffer and whoever wins tryLock folds it in, so no reader ever waits
+class SpaceSaving {
+
+    private final int capacity;
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    private final OfferBuffer buffer = new OfferBuffer();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void offer(String key, int payloadBytes) {
+        if (!buffer.add(new OfferBuffer.Offer(key, payloadBytes))) return;
+        if (!lock.tryLock()) return;
+
+        try {
+            buffer.drain(this::apply);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<HotKey> top(int limit, double windowSeconds, double hotRate) {
+        lock.lock();
+        try {
+            buffer.drain(this::apply);
+            return snapshot(limit, windowSeconds, hotRate);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void apply(OfferBuffer.Offer offer) {
+        String key = offer.key();
+        int payloadBytes = offer.payloadBytes();
+
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            counter = counters.size() < capacity ? new Counter(key, 0) : replaceMin(key);
+            counters.put(key, counter);
+        }
+
+        counter.count++;
+        if (payloadBytes >= 0) {
+            counter.payloadBytes += payloadBytes;
+            counter.sized++;
+        }
+    }
+
+    private List<HotKey> snapshot(int limit, double windowSeconds, double hotRate) {
+        return counters.values()
+                .stream()
+                .sorted(Comparator.comparingLong((Counter c) -> c.count).reversed())
+                .limit(limit)
+                .map(c -> new HotKey(
+                        c.key,
+                        c.count / windowSeconds,
+                        c.error / windowSeconds,
+                        c.sized == 0 ? null : c.payloadBytes / c.sized,
+                        (c.count - c.error) / windowSeconds >= hotRate
+                ))
+                .toList();
+    }
+
+    private Counter replaceMin(String key) {
+        Counter min = counters.values()
+                .stream()
+                .min(Comparator.comparingLong(c -> c.count))
+                .orElseThrow();
+        counters.remove(min.key);
+
+        // the newcomer may have been seen up to min.count times while untracked, only count - error is guaranteed
+        Counter counter = new Counter(key, min.count);
+        counter.count = min.count;
+
+        return counter;
+    }
+
+    private static final class Counter {
+        private final String key;
+        private final long error;
+        private long count;
+        private long payloadBytes;
+        private long sized;
+
+        private Counter(String key, long error) {
+            this.key = key;
+            this.error = error;
+        }
+    }
+}
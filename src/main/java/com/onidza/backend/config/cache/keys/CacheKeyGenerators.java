@@ -1,7 +1,6 @@
 package com.onidza.backend.config.cache.keys;
 
 import com.onidza.backend.model.dto.order.OrderFilterDTO;
-import com.onidza.backend.model.enums.OrderStatus;
 import com.onidza.backend.service.cache.CacheVersionService;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
@@ -10,9 +9,13 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class CacheKeyGenerators {
 
-    private static final String PAGE_KEY_FORMAT = "ver=%d:p=%s:s=%s";
-    private static final String BY_CLIENT_PAGE_KEY_FORMAT = "clientId=%s:ver=%d:p=%s:s=%s";
-    private static final String FILTER_STATUS_KEY_FORMAT = "ver=%d:status=%s:p=%d:s=%d";
+    private static final String PAGE_KEY_FORMAT = "ver=%d:p=%s:s=%s:c=%s";
+    private static final String BY_CLIENT_PAGE_KEY_FORMAT = "clientId=%s:ver=%d:p=%s:s=%s:c=%s";
+    private static final String FILTER_PAGE_KEY_FORMAT = "%s:p=%s:s=%s:c=%s";
+
+    private static final String CURSOR_KEY_FORMAT = "ver=%d:after=%s:s=%s";
+    private static final String BY_CLIENT_CURSOR_KEY_FORMAT = "clientId=%s:ver=%d:after=%s:s=%s";
+    private static final String FILTER_CURSOR_KEY_FORMAT = "%s:after=%s:s=%s";
 
     @Bean
     public KeyGenerator clientPageKeyGen(CacheVersionService versionService) {
@@ -21,7 +24,7 @@ public class CacheKeyGenerators {
                     CacheVersionKeys.CLIENTS_PAGE_VER_KEY
             );
 
-            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1]);
+            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1], params[2]);
         };
     }
 
@@ -32,7 +35,7 @@ public class CacheKeyGenerators {
                     CacheVersionKeys.COUPON_PAGE_VER_KEY
             );
 
-            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1]);
+            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1], params[2]);
         };
     }
 
@@ -50,7 +53,8 @@ public class CacheKeyGenerators {
                     clientId,
                     ver,
                     params[1],
-                    params[2]
+                    params[2],
+                    params[3]
             );
         };
     }
@@ -62,7 +66,7 @@ public class CacheKeyGenerators {
                     CacheVersionKeys.ORDERS_PAGE_VER_KEY
             );
 
-            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1]);
+            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1], params[2]);
         };
     }
 
@@ -80,40 +84,94 @@ public class CacheKeyGenerators {
                     clientId,
                     ver,
                     params[1],
-                    params[2]
+                    params[2],
+                    params[3]
             );
         };
     }
 
     @Bean
-    public KeyGenerator filterStatusKeyGen(CacheVersionService versionService) {
-        return (target, method, params) -> {
-            OrderFilterDTO filter = (OrderFilterDTO) params[0];
-            OrderStatus status = filter.status();
-            int page = (int) params[1];
-            int size = (int) params[2];
+    public KeyGenerator orderFilterKeyGen(OrderFilterCanonicalizer canonicalizer) {
+        return (target, method, params) -> FILTER_PAGE_KEY_FORMAT.formatted(
+                canonicalizer.datasetKey((OrderFilterDTO) params[0]),
+                params[1],
+                params[2],
+                params[3]
+        );
+    }
 
+    @Bean
+    public KeyGenerator profilePageKeyGen(CacheVersionService versionService) {
+        return (target, method, params) -> {
             long ver = versionService.getKeyVersion(
-                    CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER
+                    CacheVersionKeys.PROFILES_PAGE_VER_KEY
             );
 
-            return FILTER_STATUS_KEY_FORMAT.formatted(
-                    ver,
-                    status,
-                    page,
-                    size
-            );
+            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1], params[2]);
         };
     }
 
+    // cursor pages reuse the version keys of the page regions listing the same rows
+
     @Bean
-    public KeyGenerator profilePageKeyGen(CacheVersionService versionService) {
+    public KeyGenerator clientCursorKeyGen(CacheVersionService versionService) {
+        return cursorKeyGen(versionService, CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+    }
+
+    @Bean
+    public KeyGenerator couponCursorKeyGen(CacheVersionService versionService) {
+        return cursorKeyGen(versionService, CacheVersionKeys.COUPON_PAGE_VER_KEY);
+    }
+
+    @Bean
+    public KeyGenerator couponCursorByClientIdKeyGen(CacheVersionService versionService) {
+        return byClientCursorKeyGen(versionService, CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY);
+    }
+
+    @Bean
+    public KeyGenerator orderCursorKeyGen(CacheVersionService versionService) {
+        return cursorKeyGen(versionService, CacheVersionKeys.ORDERS_PAGE_VER_KEY);
+    }
+
+    @Bean
+    public KeyGenerator orderCursorByClientIdKeyGen(CacheVersionService versionService) {
+        return byClientCursorKeyGen(versionService, CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY);
+    }
+
+    @Bean
+    public KeyGenerator orderFilterCursorKeyGen(OrderFilterCanonicalizer canonicalizer) {
+        return (target, method, params) -> FILTER_CURSOR_KEY_FORMAT.formatted(
+                canonicalizer.datasetKey((OrderFilterDTO) params[0]),
+                params[1],
+                params[2]
+        );
+    }
+
+    @Bean
+    public KeyGenerator profileCursorKeyGen(CacheVersionService versionService) {
+        return cursorKeyGen(versionService, CacheVersionKeys.PROFILES_PAGE_VER_KEY);
+    }
+
+    private static KeyGenerator cursorKeyGen(CacheVersionService versionService, String versionKey) {
+        return (target, method, params) -> CURSOR_KEY_FORMAT.formatted(
+                versionService.getKeyVersion(versionKey),
+                params[0],
+                params[1]
+        );
+    }
+
+    private static KeyGenerator byClientCursorKeyGen(CacheVersionService versionService, String versionKeyFormat) {
         return (target, method, params) -> {
-            long ver = versionService.getKeyVersion(
-                    CacheVersionKeys.PROFILES_PAGE_VER_KEY
-            );
+            Long clientId = (Long) params[0];
+
+            long ver = versionService.getKeyVersion(versionKeyFormat.formatted(clientId));
 
-            return PAGE_KEY_FORMAT.formatted(ver, params[0], params[1]);
+            return BY_CLIENT_CURSOR_KEY_FORMAT.formatted(
+                    clientId,
+                    ver,
+                    params[1],
+                    params[2]
+            );
         };
     }
 }
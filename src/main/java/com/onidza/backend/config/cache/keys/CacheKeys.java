@@ -3,21 +3,44 @@ package com.onidza.backend.config.cache.keys;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class CacheKeys {
 
     public static final String CLIENT_KEY_PREFIX = "client:id";
     public static final String CLIENTS_PAGE_PREFIX = "clientsPage";
+    public static final String CLIENTS_CURSOR_PREFIX = "clientsCursor";
 
     public static final String PROFILE_KEY_PREFIX = "profile:id";
     public static final String PROFILES_PAGE_PREFIX = "profilePage";
+    public static final String PROFILES_CURSOR_PREFIX = "profilesCursor";
 
     public static final String ORDER_KEY_PREFIX = "order:id";
     public static final String ORDERS_PAGE_PREFIX = "ordersPage";
     public static final String ORDERS_PAGE_BY_CLIENT_ID_PREFIX = "ordersPageByClientId";
-    public static final String ORDERS_FILTER_STATUS_KEY_PREFIX = "orders:filter:status";
+    public static final String ORDERS_FILTER_KEY_PREFIX = "orders:filter";
+    public static final String ORDERS_CURSOR_PREFIX = "ordersCursor";
+    public static final String ORDERS_CURSOR_BY_CLIENT_ID_PREFIX = "ordersCursorByClientId";
+    public static final String ORDERS_FILTER_CURSOR_PREFIX = "orders:filter:cursor";
 
     public static final String COUPON_KEY_PREFIX = "coupon";
     public static final String COUPON_PAGE_PREFIX = "couponsPage";
     public static final String COUPONS_PAGE_BY_CLIENT_ID_PREFIX = "couponsPageByClientId";
+    public static final String COUPONS_CURSOR_PREFIX = "couponsCursor";
+    public static final String COUPONS_CURSOR_BY_CLIENT_ID_PREFIX = "couponsCursorByClientId";
+
+    public static final String PAGE_TOTALS_PREFIX = "pageTotals";
+
+    public static final String TOMBSTONE_PREFIX = "tombstone";
+
+    public static final Set<String> CURSOR_REGIONS = Set.of(
+            CLIENTS_CURSOR_PREFIX,
+            PROFILES_CURSOR_PREFIX,
+            ORDERS_CURSOR_PREFIX,
+            ORDERS_CURSOR_BY_CLIENT_ID_PREFIX,
+            ORDERS_FILTER_CURSOR_PREFIX,
+            COUPONS_CURSOR_PREFIX,
+            COUPONS_CURSOR_BY_CLIENT_ID_PREFIX
+    );
 }
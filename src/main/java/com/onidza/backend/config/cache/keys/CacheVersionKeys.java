@@ -12,7 +12,7 @@ public class CacheVersionKeys {
 
     public static final String ORDERS_PAGE_VER_KEY = "ordersPage:ver";
     public static final String ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY = "ordersPage:byClientId:%d:ver";
-    public static final String ORDERS_FILTER_STATUS_KEY_VER = "orders:filter:status:ver";
+    public static final String ORDERS_FILTER_STATUS_VER_FORMATTED_KEY = "orders:filter:status:%s:ver";
 
     public static final String COUPON_PAGE_VER_KEY = "couponsPage:ver";
     public static final String COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY = "couponsPage:byClientId:%d:ver";
@@ -0,0 +1,81 @@
+package com.onidza.backend.config.cache.keys;
+
+import com.onidza.backend.model.dto.order.OrderFilterDTO;
+import com.onidza.backend.model.enums.OrderStatus;
+import com.onidza.backend.service.cache.CacheVersionService;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+@Component
+public class OrderFilterCanonicalizer {
+
+    private static final String NO_RANGE = "-";
+    private static final String DATASET_KEY_FORMAT = "ver=%s:status=%s:f=%s";
+
+    private final CacheVersionService versionService;
+
+    public OrderFilterCanonicalizer(CacheVersionService versionService) {
+        this.versionService = versionService;
+    }
+
+    // identifies the filtered dataset regardless of page, shared by page entries and their totals
+    public String datasetKey(OrderFilterDTO filter) {
+        return DATASET_KEY_FORMAT.formatted(
+                version(filter.status()),
+                filter.status(),
+                rangeHash(filter)
+        );
+    }
+
+    // the exact bounds, the query runs with them and two ranges never share an entry
+    private String rangeHash(OrderFilterDTO filter) {
+        if (filter.fromDate() == null
+                && filter.toDate() == null
+                && filter.minAmount() == null
+                && filter.maxAmount() == null) {
+            return NO_RANGE;
+        }
+
+        String canonical = String.join("|",
+                "from=" + filter.fromDate(),
+                "to=" + filter.toDate(),
+                "min=" + plain(filter.minAmount()),
+                "max=" + plain(filter.maxAmount()));
+
+        return HexFormat.of().formatHex(Arrays.copyOf(sha256(canonical), 12));
+    }
+
+    // a filter without a status lists orders of every status, null included; versions only grow,
+    // so their sum changes on every bump and stays one number for the versionless key
+    private long version(OrderStatus status) {
+        if (status != null) return statusVersion(status);
+
+        return Stream.concat(Arrays.stream(OrderStatus.values()), Stream.of((OrderStatus) null))
+                .mapToLong(this::statusVersion)
+                .sum();
+    }
+
+    private long statusVersion(OrderStatus status) {
+        return versionService.getKeyVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_VER_FORMATTED_KEY.formatted(status));
+    }
+
+    // 10, 10.0 and 10.00 hit the same entry
+    private static String plain(BigDecimal value) {
+        return value == null ? null : value.stripTrailingZeros().toPlainString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.onidza.backend.config.cache.mode;
+
+import java.util.Locale;
+
+public enum CacheMode {
+    NONE(false, false),
+    REDIS(false, true),
+    LOCAL(true, false),
+    TWO_TIER(true, true);
+
+    private final boolean local;
+    private final boolean remote;
+
+    CacheMode(boolean local, boolean remote) {
+        this.local = local;
+        this.remote = remote;
+    }
+
+    public boolean usesLocal() {
+        return local;
+    }
+
+    public boolean usesRemote() {
+        return remote;
+    }
+
+    // aliases keep the existing k6 values working: NON_CACHE, MANUAL, SPRING
+    public static CacheMode parse(String value) {
+        String normalized = value.trim().toUpperCase(Locale.ROOT).replace('-', '_');
+
+        return switch (normalized) {
+            case "NON_CACHE", "NO_CACHE", "OFF" -> NONE;
+            case "MANUAL" -> REDIS;
+            case "CACHE", "ON", "SPRING" -> TWO_TIER;
+            default -> valueOf(normalized);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.onidza.backend.config.cache.mode;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "cachemode")
+public class CacheModeEndpoint {
+
+    private final CacheModeHolder cacheModeHolder;
+
+    @ReadOperation
+    public Map<String, CacheMode> mode() {
+        return Map.of("mode", cacheModeHolder.getInstanceMode());
+    }
+
+    @WriteOperation
+    public Map<String, CacheMode> switchMode(String mode) {
+        cacheModeHolder.setInstanceMode(CacheMode.parse(mode));
+
+        return mode();
+    }
+}
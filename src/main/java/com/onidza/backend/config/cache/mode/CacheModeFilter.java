@@ -0,0 +1,56 @@
+package com.onidza.backend.config.cache.mode;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class CacheModeFilter extends OncePerRequestFilter {
+
+    public static final String PARAMETER = "cacheMode";
+    public static final String HEADER = "X-Cache-Mode";
+    public static final String ATTRIBUTE = CacheModeFilter.class.getName() + ".mode";
+
+    private final CacheModeHolder cacheModeHolder;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        String requested = request.getParameter(PARAMETER);
+        if (!StringUtils.hasText(requested)) requested = request.getHeader(HEADER);
+
+        if (!StringUtils.hasText(requested)) {
+            request.setAttribute(ATTRIBUTE, cacheModeHolder.getInstanceMode());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CacheMode mode;
+        try {
+            mode = CacheMode.parse(requested);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown cache mode = " + requested);
+            return;
+        }
+
+        request.setAttribute(ATTRIBUTE, mode);
+        cacheModeHolder.setRequestMode(mode);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            cacheModeHolder.clearRequestMode();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.onidza.backend.config.cache.mode;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class CacheModeHolder {
+
+    private final ThreadLocal<CacheMode> requestMode = new ThreadLocal<>();
+
+    private volatile CacheMode instanceMode;
+
+    public CacheModeHolder(AppCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.instanceMode = cacheProperties.getMode();
+
+        for (CacheMode mode : CacheMode.values()) {
+            Gauge.builder("cache.mode.instance", this, holder -> holder.instanceMode == mode ? 1 : 0)
+                    .tag("mode", mode.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public CacheMode current() {
+        CacheMode mode = requestMode.get();
+        return mode != null ? mode : instanceMode;
+    }
+
+    public CacheMode getInstanceMode() {
+        return instanceMode;
+    }
+
+    public void setInstanceMode(CacheMode mode) {
+        log.info("Cache mode switched from {} to {}", instanceMode, mode);
+        this.instanceMode = mode;
+    }
+
+    public void setRequestMode(CacheMode mode) {
+        requestMode.set(mode);
+    }
+
+    public void clearRequestMode() {
+        requestMode.remove();
+    }
+
+    public Runnable propagate(Runnable task) {
+        CacheMode mode = requestMode.get();
+
+        return () -> {
+            requestMode.set(mode);
+            try {
+                task.run();
+            } finally {
+                requestMode.remove();
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.onidza.backend.config.cache.mode;
+
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CacheModeObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object mode = context.getCarrier().getAttribute(CacheModeFilter.ATTRIBUTE);
+
+        return super.getLowCardinalityKeyValues(context)
+                .and("cache.mode", mode == null ? "UNKNOWN" : mode.toString());
+    }
+}
@@ -0,0 +1,162 @@
+package com.onidza.backend.config.cache.page;
+
+import com.onidza.backend.config.cache.TwoTierCacheManager;
+import com.onidza.backend.config.datasource.PrimaryReads;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class IdListPageCache<P, D> implements Cache {
+
+    private final Cache ids;
+    private final IdListPageSupport<P, D> support;
+    private final TwoTierCacheManager entities;
+
+    public IdListPageCache(Cache ids, IdListPageSupport<P, D> support, TwoTierCacheManager entities) {
+        this.ids = ids;
+        this.support = support;
+        this.entities = entities;
+    }
+
+    @Override
+    public String getName() {
+        return ids.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return ids.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = ids.get(key);
+        if (wrapper == null || wrapper.get() == null) return null;
+
+        P page = compose((IdPage) wrapper.get());
+        return page == null ? null : new SimpleValueWrapper(page);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) return null;
+
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        AtomicReference<P> loaded = new AtomicReference<>();
+
+        IdPage idPage = ids.get(key, () -> {
+            P page = (P) valueLoader.call();
+            if (page == null) return null;
+
+            loaded.set(page);
+            storeItems(page);
+            return support.toIdPage().apply(page);
+        });
+
+        if (loaded.get() != null) return (T) loaded.get();
+        if (idPage == null) return null;
+
+        P page = compose(idPage);
+        if (page != null) return (T) page;
+
+        // an id from the cached list is gone from the database, rebuild the page
+        page = PrimaryReads.get(() -> {
+            try {
+                return (P) valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+
+        put(key, page);
+        return (T) page;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void put(Object key, @Nullable Object value) {
+        if (value == null) {
+            ids.evict(key);
+            return;
+        }
+
+        P page = (P) value;
+        storeItems(page);
+        ids.put(key, support.toIdPage().apply(page));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) return existing;
+
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        ids.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        ids.clear();
+    }
+
+    private P compose(IdPage idPage) {
+        Map<Object, Object> cached = entities.getAll(support.entityRegion(), idPage.ids());
+
+        List<Long> missing = idPage.ids().stream()
+                .filter(id -> !cached.containsKey(id))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            Map<Object, Object> loaded = new LinkedHashMap<>();
+            // these go into the entity region, same rule as any other cache load
+            PrimaryReads.get(() -> support.loader().apply(missing))
+                    .forEach(item -> loaded.put(support.id().apply(item), item));
+
+            entities.putAll(support.entityRegion(), loaded);
+            cached.putAll(loaded);
+        }
+
+        List<D> items = new ArrayList<>(idPage.ids().size());
+        for (Long id : idPage.ids()) {
+            @SuppressWarnings("unchecked")
+            D item = (D) cached.get(id);
+            if (item == null) return null;
+
+            items.add(item);
+        }
+
+        return support.assemble().apply(idPage, items);
+    }
+
+    private void storeItems(P page) {
+        Map<Object, Object> values = new LinkedHashMap<>();
+        support.items().apply(page).forEach(item -> values.put(support.id().apply(item), item));
+
+        entities.putAll(support.entityRegion(), values);
+    }
+}
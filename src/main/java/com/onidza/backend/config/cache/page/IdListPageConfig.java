@@ -0,0 +1,245 @@
+package com.onidza.backend.config.cache.page;
+
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsCursorPageDTO;
+import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponsCursorPageDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.dto.order.OrdersCursorPageDTO;
+import com.onidza.backend.model.dto.order.OrdersPageDTO;
+import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.dto.profile.ProfilesCursorPageDTO;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.repository.CouponRepository;
+import com.onidza.backend.repository.OrderRepository;
+import com.onidza.backend.repository.ProfileRepository;
+import com.onidza.backend.service.client.ClientReadAssembler;
+import com.onidza.backend.service.coupon.CouponReadAssembler;
+import com.onidza.backend.service.pagination.Cursors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+@Configuration
+public class IdListPageConfig {
+
+    @Bean
+    public IdListPageSupport<OrdersPageDTO, OrderDTO> orderIdListPages(
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(
+                        CacheKeys.ORDERS_PAGE_PREFIX,
+                        CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX,
+                        CacheKeys.ORDERS_FILTER_KEY_PREFIX
+                ),
+                CacheKeys.ORDER_KEY_PREFIX,
+                OrdersPageDTO::items,
+                OrderDTO::id,
+                page -> IdPage.of(
+                        page.items(),
+                        OrderDTO::id,
+                        page.page(),
+                        page.size(),
+                        page.totalElements(),
+                        page.totalPages(),
+                        page.hasNext()
+                ),
+                (ids, items) -> new OrdersPageDTO(
+                        items,
+                        ids.page(),
+                        ids.size(),
+                        ids.totalElements(),
+                        ids.totalPages(),
+                        ids.hasNext()
+                ),
+                readOnly(transactionManager, orderRepository::findDtosByIdIn)
+        );
+    }
+
+    @Bean
+    public IdListPageSupport<CouponPageDTO, CouponDTO> couponIdListPages(
+            CouponRepository couponRepository,
+            CouponReadAssembler readAssembler,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(
+                        CacheKeys.COUPON_PAGE_PREFIX,
+                        CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX
+                ),
+                CacheKeys.COUPON_KEY_PREFIX,
+                CouponPageDTO::items,
+                CouponDTO::id,
+                page -> IdPage.of(
+                        page.items(),
+                        CouponDTO::id,
+                        page.page(),
+                        page.size(),
+                        page.totalElements(),
+                        page.totalPages(),
+                        page.hasNext()
+                ),
+                (ids, items) -> new CouponPageDTO(
+                        items,
+                        ids.page(),
+                        ids.size(),
+                        ids.totalElements(),
+                        ids.totalPages(),
+                        ids.hasNext()
+                ),
+                readOnly(transactionManager, ids ->
+                        readAssembler.toDTOs(couponRepository.findRowsByIdIn(ids)))
+        );
+    }
+
+    @Bean
+    public IdListPageSupport<ClientsPageDTO, ClientDTO> clientIdListPages(
+            ClientRepository clientRepository,
+            ClientReadAssembler readAssembler,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(CacheKeys.CLIENTS_PAGE_PREFIX),
+                CacheKeys.CLIENT_KEY_PREFIX,
+                ClientsPageDTO::items,
+                ClientDTO::id,
+                page -> IdPage.of(
+                        page.items(),
+                        ClientDTO::id,
+                        page.page(),
+                        page.size(),
+                        page.totalElements(),
+                        page.totalPages(),
+                        page.hasNext()
+                ),
+                (ids, items) -> new ClientsPageDTO(
+                        items,
+                        ids.page(),
+                        ids.size(),
+                        ids.totalElements(),
+                        ids.totalPages(),
+                        ids.hasNext()
+                ),
+                readOnly(transactionManager, ids ->
+                        readAssembler.toDTOs(clientRepository.findWithProfileByIdIn(ids)))
+        );
+    }
+
+    // cursor pages keep no totals, hasNext is enough to rebuild the next token from the last id
+
+    @Bean
+    public IdListPageSupport<OrdersCursorPageDTO, OrderDTO> orderCursorIdListPages(
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(
+                        CacheKeys.ORDERS_CURSOR_PREFIX,
+                        CacheKeys.ORDERS_CURSOR_BY_CLIENT_ID_PREFIX,
+                        CacheKeys.ORDERS_FILTER_CURSOR_PREFIX
+                ),
+                CacheKeys.ORDER_KEY_PREFIX,
+                OrdersCursorPageDTO::items,
+                OrderDTO::id,
+                page -> cursorIdPage(page.items(), OrderDTO::id, page.size(), page.next()),
+                (ids, items) -> new OrdersCursorPageDTO(
+                        items,
+                        ids.size(),
+                        Cursors.next(items, OrderDTO::id, ids.hasNext())
+                ),
+                readOnly(transactionManager, orderRepository::findDtosByIdIn)
+        );
+    }
+
+    @Bean
+    public IdListPageSupport<CouponsCursorPageDTO, CouponDTO> couponCursorIdListPages(
+            CouponRepository couponRepository,
+            CouponReadAssembler readAssembler,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(
+                        CacheKeys.COUPONS_CURSOR_PREFIX,
+                        CacheKeys.COUPONS_CURSOR_BY_CLIENT_ID_PREFIX
+                ),
+                CacheKeys.COUPON_KEY_PREFIX,
+                CouponsCursorPageDTO::items,
+                CouponDTO::id,
+                page -> cursorIdPage(page.items(), CouponDTO::id, page.size(), page.next()),
+                (ids, items) -> new CouponsCursorPageDTO(
+                        items,
+                        ids.size(),
+                        Cursors.next(items, CouponDTO::id, ids.hasNext())
+                ),
+                readOnly(transactionManager, ids ->
+                        readAssembler.toDTOs(couponRepository.findRowsByIdIn(ids)))
+        );
+    }
+
+    @Bean
+    public IdListPageSupport<ClientsCursorPageDTO, ClientDTO> clientCursorIdListPages(
+            ClientRepository clientRepository,
+            ClientReadAssembler readAssembler,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(CacheKeys.CLIENTS_CURSOR_PREFIX),
+                CacheKeys.CLIENT_KEY_PREFIX,
+                ClientsCursorPageDTO::items,
+                ClientDTO::id,
+                page -> cursorIdPage(page.items(), ClientDTO::id, page.size(), page.next()),
+                (ids, items) -> new ClientsCursorPageDTO(
+                        items,
+                        ids.size(),
+                        Cursors.next(items, ClientDTO::id, ids.hasNext())
+                ),
+                readOnly(transactionManager, ids ->
+                        readAssembler.toDTOs(clientRepository.findWithProfileByIdIn(ids)))
+        );
+    }
+
+    @Bean
+    public IdListPageSupport<ProfilesCursorPageDTO, ProfileDTO> profileCursorIdListPages(
+            ProfileRepository profileRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        return new IdListPageSupport<>(
+                Set.of(CacheKeys.PROFILES_CURSOR_PREFIX),
+                CacheKeys.PROFILE_KEY_PREFIX,
+                ProfilesCursorPageDTO::items,
+                ProfileDTO::id,
+                page -> cursorIdPage(page.items(), ProfileDTO::id, page.size(), page.next()),
+                (ids, items) -> new ProfilesCursorPageDTO(
+                        items,
+                        ids.size(),
+                        Cursors.next(items, ProfileDTO::id, ids.hasNext())
+                ),
+                readOnly(transactionManager, profileRepository::findDtosByIdIn)
+        );
+    }
+
+    private static <D> IdPage cursorIdPage(List<D> items, Function<D, Long> id, int size, String next) {
+        return IdPage.of(items, id, 0, size, -1, -1, next != null);
+    }
+
+    private static <D> Function<Collection<Long>, List<D>> readOnly(
+            PlatformTransactionManager transactionManager,
+            Function<Collection<Long>, List<D>> loader
+    ) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        return ids -> tx.execute(status -> loader.apply(ids));
+    }
+}
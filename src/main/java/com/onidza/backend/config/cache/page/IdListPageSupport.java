@@ -0,0 +1,18 @@
+package com.onidza.backend.config.cache.page;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public record IdListPageSupport<P, D>(
+        Set<String> pageRegions,
+        String entityRegion,
+        Function<P, List<D>> items,
+        Function<D, Long> id,
+        Function<P, IdPage> toIdPage,
+        BiFunction<IdPage, List<D>, P> assemble,
+        Function<Collection<Long>, List<D>> loader
+) {
+}
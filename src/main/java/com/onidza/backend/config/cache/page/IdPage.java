@@ -0,0 +1,33 @@
+package com.onidza.backend.config.cache.page;
+
+import java.util.List;
+import java.util.function.Function;
+
+public record IdPage(
+        List<Long> ids,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages,
+        boolean hasNext
+) {
+
+    public static <D> IdPage of(
+            List<D> items,
+            Function<D, Long> id,
+            int page,
+            int size,
+            long totalElements,
+            int totalPages,
+            boolean hasNext
+    ) {
+        return new IdPage(
+                items.stream().map(id).toList(),
+                page,
+                size,
+                totalElements,
+                totalPages,
+                hasNext
+        );
+    }
+}
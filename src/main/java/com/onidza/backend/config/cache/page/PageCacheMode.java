@@ -0,0 +1,6 @@
+package com.onidza.backend.config.cache.page;
+
+public enum PageCacheMode {
+    BLOB,
+    ID_LIST
+}
@@ -0,0 +1,28 @@
+package com.onidza.backend.config.datasource;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.function.Supplier;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    // read-only transactions started inside the supplier read from the primary, e.g. loads that fill a cache
+    public static <T> T get(Supplier<T> supplier) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) PRIMARY.remove();
+            else PRIMARY.set(previous);
+        }
+    }
+
+    public static boolean requested() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,94 @@
+package com.onidza.backend.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// readOnly transactions mark the connection read-only before the first statement,
+// the lazy proxy then takes the physical connection from the replicas instead of the primary
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaPools replicaPools(
+            ReplicaProperties properties,
+            DataSourceProperties dataSourceProperties,
+            MeterRegistry meterRegistry
+    ) {
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReplicaProperties.Node node = properties.getNodes().get(i);
+            String name = node.getName() != null ? node.getName() : "replica-" + i;
+
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(name);
+            pool.setJdbcUrl(node.getUrl());
+            pool.setUsername(node.getUsername() != null ? node.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(node.getPassword() != null ? node.getPassword() : dataSourceProperties.determinePassword());
+            pool.setMaximumPoolSize(properties.getMaxPoolSize());
+            pool.setReadOnly(true);
+            // a replica that is down at startup or later must not stall the caller for the default 30s
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(Math.max(250, properties.getHealthCheckTimeout().toMillis()));
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+            pools.put(name, pool);
+        }
+
+        return new ReplicaPools(pools);
+    }
+
+    @Bean
+    public ReplicaHealth replicaHealth(ReplicaPools replicaPools, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        return new ReplicaHealth(replicaPools.dataSources(), properties, meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties properties) {
+        return new ReadYourWrites(properties.getReadYourWritesWindow(), properties.getReadYourWritesMaxClients());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            ReplicaPools replicaPools,
+            ReplicaHealth replicaHealth,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry
+    ) {
+        ReplicaRoutingDataSource reads = new ReplicaRoutingDataSource(
+                primaryDataSource,
+                replicaPools.dataSources(),
+                replicaHealth,
+                readYourWrites,
+                meterRegistry
+        );
+        reads.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy dataSource =
+                new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primaryDataSource, readYourWrites));
+        dataSource.setReadOnlyDataSource(reads);
+        return dataSource;
+    }
+}
@@ -0,0 +1,44 @@
+package com.onidza.backend.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+
+// per instance, a client whose next read lands on another instance can still see replica lag
+public class ReadYourWrites {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maxClients) {
+        this.recentWriters = window.isZero() || window.isNegative()
+                ? null
+                : Caffeine.newBuilder()
+                        .expireAfterWrite(window)
+                        .maximumSize(maxClients)
+                        .build();
+    }
+
+    public void markWrite() {
+        if (recentWriters == null) return;
+
+        String client = currentClient();
+        if (client != null) recentWriters.put(client, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote() {
+        if (recentWriters == null) return false;
+
+        String client = currentClient();
+        return client != null && recentWriters.getIfPresent(client) != null;
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) return null;
+
+        return authentication.getName();
+    }
+}
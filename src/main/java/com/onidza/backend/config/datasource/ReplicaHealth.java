@@ -0,0 +1,82 @@
+package com.onidza.backend.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// replicas start as down, reads stay on the primary until the first check passes
+@Slf4j
+public class ReplicaHealth {
+
+    private static final String LAG_SQL = """
+            select case when pg_is_in_recovery()
+                        then coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                        else 0 end
+            """;
+
+    private final Map<String, DataSource> replicas;
+    private final Duration timeout;
+    private final Duration maxLag;
+
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaHealth(Map<String, DataSource> replicas, ReplicaProperties properties, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.timeout = properties.getHealthCheckTimeout();
+        this.maxLag = properties.getMaxLag();
+
+        Gauge.builder("datasource.replicas.healthy", this, health -> health.healthy().size())
+                .register(meterRegistry);
+    }
+
+    public List<String> healthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval:5s}")
+    public void check() {
+        List<String> up = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> {
+            boolean wasUp = healthy.contains(name);
+            boolean isUp = isHealthy(name, dataSource);
+
+            if (isUp) up.add(name);
+            if (wasUp && !isUp) log.warn("Replica {} is down, its reads go to the other replicas or the primary", name);
+            if (!wasUp && isUp) log.info("Replica {} is up", name);
+        });
+
+        healthy = List.copyOf(up);
+    }
+
+    private boolean isHealthy(String name, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(Math.max(1, (int) timeout.toSeconds()))) return false;
+            if (maxLag == null) return true;
+
+            try (PreparedStatement statement = connection.prepareStatement(LAG_SQL)) {
+                statement.setQueryTimeout(Math.max(1, (int) timeout.toSeconds()));
+                try (ResultSet rs = statement.executeQuery()) {
+                    double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                    if (lagSeconds * 1000 <= maxLag.toMillis()) return true;
+
+                    log.debug("Replica {} lags by {} s", name, lagSeconds);
+                    return false;
+                }
+            }
+        } catch (SQLException e) {
+            log.debug("Replica {} health check failed", name, e);
+            return false;
+        }
+    }
+}
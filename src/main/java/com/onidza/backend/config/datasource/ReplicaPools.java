@@ -0,0 +1,26 @@
+package com.onidza.backend.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ReplicaPools implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> pools;
+
+    public ReplicaPools(Map<String, HikariDataSource> pools) {
+        this.pools = pools;
+    }
+
+    public Map<String, DataSource> dataSources() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(pools));
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
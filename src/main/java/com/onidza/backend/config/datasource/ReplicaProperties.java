@@ -0,0 +1,48 @@
+package com.onidza.backend.config.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    private int maxPoolSize = 10;
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    // unset skips the lag check, an idle primary makes an idle standby look lagged;
+    // loads that fill a cache never use a replica, so lag only ever shows in uncached reads
+    private Duration maxLag;
+
+    // zero turns read-your-writes off
+    private Duration readYourWritesWindow = Duration.ZERO;
+
+    private long readYourWritesMaxClients = 100_000;
+
+    @Getter
+    @Setter
+    public static class Node {
+
+        private String name;
+
+        private String url;
+
+        // falls back to spring.datasource credentials
+        private String username;
+
+        private String password;
+    }
+}
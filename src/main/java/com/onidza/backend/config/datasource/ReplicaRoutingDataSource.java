@@ -0,0 +1,57 @@
+package com.onidza.backend.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// only ever asked for read-only connections, the primary is the fallback target
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final ReplicaHealth health;
+    private final ReadYourWrites readYourWrites;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicas,
+            ReplicaHealth health,
+            ReadYourWrites readYourWrites,
+            MeterRegistry meterRegistry
+    ) {
+        this.health = health;
+        this.readYourWrites = readYourWrites;
+        this.meterRegistry = meterRegistry;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (PrimaryReads.requested()) return route(PRIMARY, "cache_load");
+        if (readYourWrites.recentlyWrote()) return route(PRIMARY, "read_your_writes");
+
+        List<String> up = health.healthy();
+        if (up.isEmpty()) return route(PRIMARY, "no_healthy_replica");
+
+        return route(up.get(Math.floorMod(next.getAndIncrement(), up.size())), "replica");
+    }
+
+    private String route(String target, String reason) {
+        meterRegistry.counter("datasource.reads", "target", target, "reason", reason).increment();
+        return target;
+    }
+}
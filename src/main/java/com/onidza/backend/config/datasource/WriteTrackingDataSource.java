@@ -0,0 +1,48 @@
+package com.onidza.backend.config.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// marks the current client as a recent writer once a read-write transaction on the primary commits
+public class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReadYourWrites readYourWrites;
+
+    public WriteTrackingDataSource(DataSource primary, ReadYourWrites readYourWrites) {
+        super(primary);
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        trackWrite();
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        trackWrite();
+        return super.getConnection(username, password);
+    }
+
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || TransactionSynchronizationManager.hasResource(this)) return;
+
+        // one synchronization per transaction, however many connections it asks for
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WriteTrackingDataSource.this);
+                if (status == STATUS_COMMITTED) readYourWrites.markWrite();
+            }
+        });
+    }
+}
@@ -1,9 +1,14 @@
 package com.onidza.backend.controller;
 
+import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.model.dto.client.ClientDTO;
-import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.dto.client.ClientsCursorPageDTO;
 import com.onidza.backend.model.dto.client.ClientsUpdateDTO;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.service.cache.prefetch.PagePrefetcher;
+import com.onidza.backend.service.cache.raw.RawResponseCache;
 import com.onidza.backend.service.client.ClientService;
+import com.onidza.backend.service.pagination.Cursors;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -23,25 +28,43 @@ import org.springframework.web.bind.annotation.*;
 public class ClientController {
 
     private final ClientService clientService;
+    private final PagePrefetcher prefetcher;
+    private final RawResponseCache rawResponses;
 
     @GetMapping("/{id}")
-    public ResponseEntity<ClientDTO> getClient(
+    public ResponseEntity<?> getClient(
             @PathVariable @Positive Long id
     ) {
         log.info("ClientController called getClient with id = {}", id);
-        ClientDTO client = clientService.getClient(id);
 
-        return ResponseEntity.ok(client);
+        return rawResponses.serve(CacheKeys.CLIENT_KEY_PREFIX, id, () -> clientService.getClient(id));
     }
 
     @GetMapping
-    public ResponseEntity<ClientsPageDTO> getClientsPage(
+    public ResponseEntity<?> getClientsPage(
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("ClientController called getClientsPage, page = {}, size = {}", page, size);
 
-        return ResponseEntity.ok(clientService.getClientsPage(page, size));
+        return rawResponses.serve(
+                CacheKeys.CLIENTS_PAGE_PREFIX,
+                rawResponses.key("clientPageKeyGen", page, size, count),
+                () -> clientService.getClientsPage(page, size, count),
+                clients -> prefetcher.onPage(CacheKeys.CLIENTS_PAGE_PREFIX, count, page, size,
+                        clients == null || clients.hasNext(),
+                        next -> clientService.getClientsPage(next, size, count)));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<ClientsCursorPageDTO> getClientsAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("ClientController called getClientsAfter, cursor = {}, size = {}", cursor, size);
+
+        return ResponseEntity.ok(clientService.getClientsAfter(Cursors.decode(cursor), size));
     }
 
     @PostMapping
@@ -1,8 +1,13 @@
 package com.onidza.backend.controller;
 
+import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.model.dto.coupon.CouponDTO;
-import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponsCursorPageDTO;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.service.cache.prefetch.PagePrefetcher;
+import com.onidza.backend.service.cache.raw.RawResponseCache;
 import com.onidza.backend.service.coupon.CouponService;
+import com.onidza.backend.service.pagination.Cursors;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -14,6 +19,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -22,37 +29,71 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
 
     private final CouponService couponService;
+    private final PagePrefetcher prefetcher;
+    private final RawResponseCache rawResponses;
 
     @GetMapping("/coupon/{id}")
-    public ResponseEntity<CouponDTO> getCoupon(
+    public ResponseEntity<?> getCoupon(
             @PathVariable @Positive Long id
     ) {
         log.info("CouponController called getCoupon with id = {}", id);
-        CouponDTO couponDTO = couponService.getCoupon(id);
-        return ResponseEntity.ok(couponDTO);
+        return rawResponses.serve(CacheKeys.COUPON_KEY_PREFIX, id, () -> couponService.getCoupon(id));
     }
 
     @GetMapping("/coupons")
-    public ResponseEntity<CouponPageDTO> getCouponsPage(
+    public ResponseEntity<?> getCouponsPage(
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("CouponController called getCouponsPage, page = {}, size = {}", page, size);
-        CouponPageDTO coupons = couponService.getCouponsPage(page, size);
 
-        return ResponseEntity.ok(coupons);
+        return rawResponses.serve(
+                CacheKeys.COUPON_PAGE_PREFIX,
+                rawResponses.key("couponPageKeyGen", page, size, count),
+                () -> couponService.getCouponsPage(page, size, count),
+                coupons -> prefetcher.onPage(CacheKeys.COUPON_PAGE_PREFIX, count, page, size,
+                        coupons == null || coupons.hasNext(),
+                        next -> couponService.getCouponsPage(next, size, count)));
     }
 
     @GetMapping("/{id}/coupons")
-    public ResponseEntity<CouponPageDTO> getCouponsByClientIdPage(
+    public ResponseEntity<?> getCouponsByClientIdPage(
             @PathVariable @Positive Long id,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("CouponController called getCouponsByClientIdPage with id = {}", id);
-        CouponPageDTO coupons = couponService.getCouponsByClientIdPage(id, page, size);
 
-        return ResponseEntity.ok(coupons);
+        return rawResponses.serve(
+                CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX,
+                rawResponses.key("couponPageByClientIdKeyGen", id, page, size, count),
+                () -> couponService.getCouponsByClientIdPage(id, page, size, count),
+                coupons -> prefetcher.onPage(CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX, List.of(id, count), page, size,
+                        coupons == null || coupons.hasNext(),
+                        next -> couponService.getCouponsByClientIdPage(id, next, size, count)));
+    }
+
+    @GetMapping("/coupons/scroll")
+    public ResponseEntity<CouponsCursorPageDTO> getCouponsAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("CouponController called getCouponsAfter, cursor = {}, size = {}", cursor, size);
+
+        return ResponseEntity.ok(couponService.getCouponsAfter(Cursors.decode(cursor), size));
+    }
+
+    @GetMapping("/{id}/coupons/scroll")
+    public ResponseEntity<CouponsCursorPageDTO> getCouponsByClientIdAfter(
+            @PathVariable @Positive Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("CouponController called getCouponsByClientIdAfter with id = {}, cursor = {}", id, cursor);
+
+        return ResponseEntity.ok(couponService.getCouponsByClientIdAfter(id, Cursors.decode(cursor), size));
     }
 
     @PostMapping("/{id}/coupons")
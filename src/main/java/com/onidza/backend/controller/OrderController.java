@@ -1,11 +1,15 @@
 package com.onidza.backend.controller;
 
-
+import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.dto.order.OrderFilterDTO;
-import com.onidza.backend.model.dto.order.OrdersPageDTO;
+import com.onidza.backend.model.dto.order.OrdersCursorPageDTO;
+import com.onidza.backend.model.enums.CountMode;
 import com.onidza.backend.model.enums.OrderStatus;
+import com.onidza.backend.service.cache.prefetch.PagePrefetcher;
+import com.onidza.backend.service.cache.raw.RawResponseCache;
 import com.onidza.backend.service.order.OrderService;
+import com.onidza.backend.service.pagination.Cursors;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -29,36 +34,72 @@ import java.time.LocalDateTime;
 public class OrderController {
 
     private final OrderService orderService;
+    private final PagePrefetcher prefetcher;
+    private final RawResponseCache rawResponses;
 
     @GetMapping("/order/{id}")
-    public ResponseEntity<OrderDTO> getOrder(
+    public ResponseEntity<?> getOrder(
             @PathVariable @Positive Long id
     ) {
         log.info("OrderController called getOrder with id = {}", id);
-        OrderDTO orderDTO = orderService.getOrder(id);
 
-        return ResponseEntity.ok(orderDTO);
+        return rawResponses.serve(CacheKeys.ORDER_KEY_PREFIX, id, () -> orderService.getOrder(id));
     }
 
     @GetMapping("/orders")
-    public ResponseEntity<OrdersPageDTO> getOrdersPage(
+    public ResponseEntity<?> getOrdersPage(
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("OrderController called getOrdersPage, page = {}, size = {}", page, size);
 
-        return ResponseEntity.ok(orderService.getOrdersPage(page, size));
+        return rawResponses.serve(
+                CacheKeys.ORDERS_PAGE_PREFIX,
+                rawResponses.key("orderPageKeyGen", page, size, count),
+                () -> orderService.getOrdersPage(page, size, count),
+                orders -> prefetcher.onPage(CacheKeys.ORDERS_PAGE_PREFIX, count, page, size,
+                        orders == null || orders.hasNext(),
+                        next -> orderService.getOrdersPage(next, size, count)));
     }
 
     @GetMapping("/{id}/orders")
-    public ResponseEntity<OrdersPageDTO> getOrdersByClientIdPage(
+    public ResponseEntity<?> getOrdersByClientIdPage(
             @PathVariable @Positive Long id,
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("OrderController called getOrdersByClientIdPage with id = {}", id);
 
-        return ResponseEntity.ok(orderService.getOrdersByClientIdPage(id, page, size));
+        return rawResponses.serve(
+                CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX,
+                rawResponses.key("orderPageByClientIdKeyGen", id, page, size, count),
+                () -> orderService.getOrdersByClientIdPage(id, page, size, count),
+                orders -> prefetcher.onPage(CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX, List.of(id, count), page, size,
+                        orders == null || orders.hasNext(),
+                        next -> orderService.getOrdersByClientIdPage(id, next, size, count)));
+    }
+
+    @GetMapping("/orders/scroll")
+    public ResponseEntity<OrdersCursorPageDTO> getOrdersAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("OrderController called getOrdersAfter, cursor = {}, size = {}", cursor, size);
+
+        return ResponseEntity.ok(orderService.getOrdersAfter(Cursors.decode(cursor), size));
+    }
+
+    @GetMapping("/{id}/orders/scroll")
+    public ResponseEntity<OrdersCursorPageDTO> getOrdersByClientIdAfter(
+            @PathVariable @Positive Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("OrderController called getOrdersByClientIdAfter with id = {}, cursor = {}", id, cursor);
+
+        return ResponseEntity.ok(orderService.getOrdersByClientIdAfter(id, Cursors.decode(cursor), size));
     }
 
     @PutMapping("/{id}/order")
@@ -93,7 +134,7 @@ public class OrderController {
     }
 
     @GetMapping("/orders/filtered")
-    public ResponseEntity<OrdersPageDTO> getOrdersByFilter(
+    public ResponseEntity<?> getOrdersByFilter(
             @RequestParam(required = false) OrderStatus status,
 
             @RequestParam(required = false)
@@ -106,7 +147,8 @@ public class OrderController {
             @RequestParam(required = false) BigDecimal maxAmount,
 
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("OrderController called getOrdersByFilter with status = {}, " +
                         "fromDate = {}, toDate = {}, minAmount = {}, maxAmount = {}",
@@ -120,6 +162,43 @@ public class OrderController {
                 maxAmount
         );
 
-        return ResponseEntity.ok(orderService.getOrdersByFilter(filter, page, size));
+        return rawResponses.serve(
+                CacheKeys.ORDERS_FILTER_KEY_PREFIX,
+                rawResponses.key("orderFilterKeyGen", filter, page, size, count),
+                () -> orderService.getOrdersByFilter(filter, page, size, count),
+                orders -> prefetcher.onPage(CacheKeys.ORDERS_FILTER_KEY_PREFIX, List.of(filter, count), page, size,
+                        orders == null || orders.hasNext(),
+                        next -> orderService.getOrdersByFilter(filter, next, size, count)));
+    }
+
+    @GetMapping("/orders/filtered/scroll")
+    public ResponseEntity<OrdersCursorPageDTO> getOrdersByFilterAfter(
+            @RequestParam(required = false) OrderStatus status,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
+
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate,
+
+            @RequestParam(required = false) BigDecimal minAmount,
+            @RequestParam(required = false) BigDecimal maxAmount,
+
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("OrderController called getOrdersByFilterAfter with status = {}, " +
+                        "fromDate = {}, toDate = {}, minAmount = {}, maxAmount = {}, cursor = {}",
+                status, fromDate, toDate, minAmount, maxAmount, cursor);
+
+        OrderFilterDTO filter = new OrderFilterDTO(
+                status,
+                fromDate,
+                toDate,
+                minAmount,
+                maxAmount
+        );
+
+        return ResponseEntity.ok(orderService.getOrdersByFilterAfter(filter, Cursors.decode(cursor), size));
     }
 }
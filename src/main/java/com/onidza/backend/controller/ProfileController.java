@@ -1,7 +1,11 @@
 package com.onidza.backend.controller;
 
+import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.model.dto.profile.ProfileDTO;
-import com.onidza.backend.model.dto.profile.ProfilesPageDTO;
+import com.onidza.backend.model.dto.profile.ProfilesCursorPageDTO;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.service.cache.raw.RawResponseCache;
+import com.onidza.backend.service.pagination.Cursors;
 import com.onidza.backend.service.profile.ProfileService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
@@ -21,26 +25,39 @@ import org.springframework.web.bind.annotation.*;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final RawResponseCache rawResponses;
 
     @GetMapping("/{id}/profile")
-    public ResponseEntity<ProfileDTO> getProfile(
+    public ResponseEntity<?> getProfile(
             @PathVariable @Positive Long id
     ) {
         log.info("ProfileService called getProfile with id = {}", id);
-        ProfileDTO profileDTO = profileService.getProfile(id);
 
-        return ResponseEntity.ok(profileDTO);
+        return rawResponses.serve(CacheKeys.PROFILE_KEY_PREFIX, id, () -> profileService.getProfile(id));
     }
 
     @GetMapping("/profiles")
-    public ResponseEntity<ProfilesPageDTO> getProfilesPage(
+    public ResponseEntity<?> getProfilesPage(
             @RequestParam(defaultValue = "0") @Min(0) int page,
-            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size
+            @RequestParam(defaultValue = "20") @Min(0) @Max(100) int size,
+            @RequestParam(defaultValue = "exact") CountMode count
     ) {
         log.info("ProfileService called getProfilesPage, page = {}, size = {}", page, size);
-        ProfilesPageDTO profiles = profileService.getProfilesPage(page, size);
 
-        return ResponseEntity.ok(profiles);
+        return rawResponses.serve(
+                CacheKeys.PROFILES_PAGE_PREFIX,
+                rawResponses.key("profilePageKeyGen", page, size, count),
+                () -> profileService.getProfilesPage(page, size, count));
+    }
+
+    @GetMapping("/profiles/scroll")
+    public ResponseEntity<ProfilesCursorPageDTO> getProfilesAfter(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
+    ) {
+        log.info("ProfileService called getProfilesAfter, cursor = {}, size = {}", cursor, size);
+
+        return ResponseEntity.ok(profileService.getProfilesAfter(Cursors.decode(cursor), size));
     }
 
     @PutMapping("/{id}/profile")
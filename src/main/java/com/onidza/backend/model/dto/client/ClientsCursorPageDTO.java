@@ -0,0 +1,10 @@
+package com.onidza.backend.model.dto.client;
+
+import java.util.List;
+
+public record ClientsCursorPageDTO(
+        List<ClientDTO> items,
+        int size,
+        String next
+) {
+}
@@ -0,0 +1,10 @@
+package com.onidza.backend.model.dto.coupon;
+
+import java.util.List;
+
+public record CouponsCursorPageDTO(
+        List<CouponDTO> items,
+        int size,
+        String next
+) {
+}
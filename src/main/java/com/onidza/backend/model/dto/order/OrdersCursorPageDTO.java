@@ -0,0 +1,10 @@
+package com.onidza.backend.model.dto.order;
+
+import java.util.List;
+
+public record OrdersCursorPageDTO(
+        List<OrderDTO> items,
+        int size,
+        String next
+) {
+}
@@ -0,0 +1,10 @@
+package com.onidza.backend.model.dto.profile;
+
+import java.util.List;
+
+public record ProfilesCursorPageDTO(
+        List<ProfileDTO> items,
+        int size,
+        String next
+) {
+}
@@ -0,0 +1,7 @@
+package com.onidza.backend.model.enums;
+
+public enum CountMode {
+    EXACT,
+    NONE,
+    ESTIMATED
+}
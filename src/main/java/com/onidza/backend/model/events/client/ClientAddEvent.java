@@ -1,8 +1,14 @@
 package com.onidza.backend.model.events.client;
 
+import com.onidza.backend.model.enums.OrderStatus;
+
 import java.util.EnumSet;
+import java.util.Set;
 
 public record ClientAddEvent(
-        EnumSet<ActionPart> parts
+        Long clientId,
+        Long profileId,
+        EnumSet<ActionPart> parts,
+        Set<OrderStatus> orderStatuses
 ) {
 }
@@ -1,5 +1,7 @@
 package com.onidza.backend.model.events.client;
 
+import com.onidza.backend.model.enums.OrderStatus;
+
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -7,6 +9,7 @@ public record ClientDeletedEvent(
         Long clientId,
         Long profileId,
         Set<Long> orderIdsToEvict,
+        Set<OrderStatus> orderStatuses,
         Set<Long> couponIdsToEvict,
         EnumSet<ActionPart> parts
 ) {
@@ -1,6 +1,7 @@
 package com.onidza.backend.model.events.coupon;
 
 public record CouponAddEvent(
-    Long clientId
+    Long clientId,
+    Long couponId
 ) {
 }
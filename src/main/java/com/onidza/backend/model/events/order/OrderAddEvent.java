@@ -1,6 +1,10 @@
 package com.onidza.backend.model.events.order;
 
+import com.onidza.backend.model.enums.OrderStatus;
+
 public record OrderAddEvent (
-    Long clientId
+    Long clientId,
+    Long orderId,
+    OrderStatus status
 ) {
 }
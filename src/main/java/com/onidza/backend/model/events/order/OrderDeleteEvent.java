@@ -1,7 +1,10 @@
 package com.onidza.backend.model.events.order;
 
+import com.onidza.backend.model.enums.OrderStatus;
+
 public record OrderDeleteEvent(
     Long clientId,
-    Long orderId
+    Long orderId,
+    OrderStatus status
 ) {
 }
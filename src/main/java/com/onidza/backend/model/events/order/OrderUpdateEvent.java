@@ -1,7 +1,12 @@
 package com.onidza.backend.model.events.order;
 
+import com.onidza.backend.model.enums.OrderStatus;
+
 public record OrderUpdateEvent(
     Long clientId,
-    Long orderId
+    Long orderId,
+    OrderStatus oldStatus,
+    OrderStatus newStatus,
+    boolean filterFieldsChanged
 ) {
 }
@@ -0,0 +1,45 @@
+package com.onidza.backend.model.filters;
+
+import com.onidza.backend.model.dto.order.OrderFilterDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the same predicates as OrderSpecification.byFilter in plain SQL, for the planner's row estimate
+public record OrderFilterSql(String sql, List<Object> args) {
+
+    private static final String SELECT = "select 1 from orders";
+
+    public static OrderFilterSql of(OrderFilterDTO filter) {
+        List<String> predicates = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        if (filter.status() != null) {
+            predicates.add("status = ?");
+            args.add(filter.status().name());
+        }
+
+        if (filter.fromDate() != null) {
+            predicates.add("order_date >= ?");
+            args.add(filter.fromDate());
+        }
+
+        if (filter.toDate() != null) {
+            predicates.add("order_date <= ?");
+            args.add(filter.toDate());
+        }
+
+        if (filter.minAmount() != null) {
+            predicates.add("total_amount >= ?");
+            args.add(filter.minAmount());
+        }
+
+        if (filter.maxAmount() != null) {
+            predicates.add("total_amount <= ?");
+            args.add(filter.maxAmount());
+        }
+
+        String sql = predicates.isEmpty() ? SELECT : SELECT + " where " + String.join(" and ", predicates);
+        return new OrderFilterSql(sql, List.copyOf(args));
+    }
+}
@@ -40,4 +40,8 @@ public final class OrderSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static Specification<Order> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
 }
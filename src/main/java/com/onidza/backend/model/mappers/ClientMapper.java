@@ -1,11 +1,15 @@
 package com.onidza.backend.model.mappers;
 
 import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.entity.Client;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class ClientMapper {
@@ -17,13 +21,8 @@ public class ClientMapper {
     public ClientDTO toDTO(Client client) {
         if (client == null) return null;
 
-        return new ClientDTO(
-                client.getId(),
-                client.getName(),
-                client.getEmail(),
-                client.getRegistrationDate(),
-
-                profileMapper.toDTO(client.getProfile()),
+        return toDTO(
+                client,
 
                 client.getOrders()
                         .stream()
@@ -37,6 +36,24 @@ public class ClientMapper {
         );
     }
 
+    // associations already fetched for a whole batch of clients, nothing is loaded lazily here
+    public ClientDTO toDTO(Client client, List<OrderDTO> orders, List<CouponDTO> coupons) {
+        if (client == null) return null;
+
+        return new ClientDTO(
+                client.getId(),
+                client.getName(),
+                client.getEmail(),
+                client.getRegistrationDate(),
+
+                profileMapper.toDTO(client.getProfile()),
+
+                orders,
+
+                coupons
+        );
+    }
+
     public Client toEntity(ClientDTO clientDTO) {
         if (clientDTO == null) return null;
 
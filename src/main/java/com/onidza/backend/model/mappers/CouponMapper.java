@@ -3,24 +3,46 @@ package com.onidza.backend.model.mappers;
 import com.onidza.backend.model.dto.coupon.CouponDTO;
 import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Coupon;
+import com.onidza.backend.repository.projection.CouponRow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class CouponMapper {
 
     public CouponDTO toDTO(Coupon coupon) {
+        if (coupon == null) return null;
+        return toDTO(
+                coupon,
+                coupon.getClients()
+                        .stream()
+                        .map(Client::getId)
+                        .toList()
+        );
+    }
+
+    public CouponDTO toDTO(Coupon coupon, List<Long> clientIds) {
         if (coupon == null) return null;
         return new CouponDTO(
                 coupon.getId(),
                 coupon.getCode(),
                 coupon.getDiscount(),
                 coupon.getExpirationDate(),
-                coupon.getClients()
-                        .stream()
-                        .map(Client::getId)
-                        .toList()
+                clientIds
+        );
+    }
+
+    public CouponDTO toDTO(CouponRow row, List<Long> clientIds) {
+        if (row == null) return null;
+        return new CouponDTO(
+                row.id(),
+                row.code(),
+                row.discount(),
+                row.expirationDate(),
+                clientIds
         );
     }
 
@@ -8,9 +8,12 @@ import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Coupon;
 import com.onidza.backend.model.entity.Order;
 import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.repository.projection.CouponRow;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class MapperService {
@@ -24,6 +27,10 @@ public class MapperService {
         return clientMapper.toDTO(client);
     }
 
+    public ClientDTO clientToDTO(Client client, List<OrderDTO> orders, List<CouponDTO> coupons) {
+        return clientMapper.toDTO(client, orders, coupons);
+    }
+
     public Client clientDTOToEntity(ClientDTO clientDTO) {
         return clientMapper.toEntity(clientDTO);
     }
@@ -32,6 +39,10 @@ public class MapperService {
         return couponMapper.toDTO(coupon);
     }
 
+    public CouponDTO couponToDTO(CouponRow row, List<Long> clientIds) {
+        return couponMapper.toDTO(row, clientIds);
+    }
+
     public Coupon couponDTOToEntity(CouponDTO couponDTO) {
         return couponMapper.toEntity(couponDTO);
     }
@@ -1,11 +1,29 @@
 package com.onidza.backend.repository;
 
 import com.onidza.backend.model.entity.Client;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
     boolean existsByEmail(String email);
+
+    @EntityGraph(attributePaths = "profile")
+    @Query("select c from Client c")
+    Slice<Client> findSliceBy(Pageable pageable);
+
+    @EntityGraph(attributePaths = "profile")
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "profile")
+    List<Client> findWithProfileByIdIn(Collection<Long> ids);
 }
@@ -1,13 +1,67 @@
 package com.onidza.backend.repository;
 
 import com.onidza.backend.model.entity.Coupon;
-import org.springframework.data.domain.Page;
+import com.onidza.backend.repository.projection.CouponClientLink;
+import com.onidza.backend.repository.projection.CouponRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
 
-    Page<Coupon> findDistinctByClientsId(Long id, Pageable pageable);
+    String COUPON_ROW = """
+            select new com.onidza.backend.repository.projection.CouponRow(
+                c.id, c.code, c.discount, c.expirationDate)
+            from Coupon c
+            """;
+
+    // read paths select coupon rows and add holders from findClientLinksByCouponIdIn
+    @Query(COUPON_ROW)
+    Slice<CouponRow> findRowSliceBy(Pageable pageable);
+
+    @Query(COUPON_ROW + "join c.clients holder where holder.id = :clientId")
+    Slice<CouponRow> findRowSliceByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    long countDistinctByClientsId(Long id);
+
+    @Query(COUPON_ROW + "where c.id in :ids")
+    List<CouponRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(COUPON_ROW + "where c.id > :id order by c.id")
+    List<CouponRow> findRowsByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @Query(COUPON_ROW + "join c.clients holder where holder.id = :clientId and c.id > :id order by c.id")
+    List<CouponRow> findRowsByClientIdAndIdGreaterThan(
+            @Param("clientId") Long clientId,
+            @Param("id") Long id,
+            Limit limit
+    );
+
+    // every holder of every coupon the given clients have, coupon DTOs list all their clients
+    @Query("""
+            select distinct cp.id as couponId, holder.id as clientId
+            from Client c
+            join c.coupons cp
+            join cp.clients holder
+            where c.id in :clientIds
+            order by cp.id, holder.id
+            """)
+    List<CouponClientLink> findCouponLinksByClientIdIn(@Param("clientIds") Collection<Long> clientIds);
+
+    @Query("""
+            select cp.id as couponId, holder.id as clientId
+            from Coupon cp
+            join cp.clients holder
+            where cp.id in :couponIds
+            order by cp.id, holder.id
+            """)
+    List<CouponClientLink> findClientLinksByCouponIdIn(@Param("couponIds") Collection<Long> couponIds);
 }
@@ -0,0 +1,17 @@
+package com.onidza.backend.repository;
+
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.entity.Order;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface OrderDtoQueries {
+
+    Slice<OrderDTO> findDtoSlice(Specification<Order> spec, Pageable pageable);
+
+    List<OrderDTO> findDtos(Specification<Order> spec, Sort sort, int limit);
+}
@@ -0,0 +1,64 @@
+package com.onidza.backend.repository;
+
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+// specification queries selecting straight into OrderDTO, the fluent findBy API only returns entities or interfaces
+class OrderDtoQueriesImpl implements OrderDtoQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<OrderDTO> findDtoSlice(Specification<Order> spec, Pageable pageable) {
+        List<OrderDTO> rows = entityManager.createQuery(query(spec, pageable.getSort()))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<OrderDTO> findDtos(Specification<Order> spec, Sort sort, int limit) {
+        return entityManager.createQuery(query(spec, sort))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private CriteriaQuery<OrderDTO> query(Specification<Order> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderDTO> query = cb.createQuery(OrderDTO.class);
+        Root<Order> root = query.from(Order.class);
+
+        // client.id is the foreign key column, reading it joins nothing
+        query.select(cb.construct(
+                OrderDTO.class,
+                root.get("id"),
+                root.get("orderDate"),
+                root.get("totalAmount"),
+                root.get("status"),
+                root.get("client").get("id")
+        ));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+
+        return query.orderBy(QueryUtils.toOrders(sort, root, cb));
+    }
+}
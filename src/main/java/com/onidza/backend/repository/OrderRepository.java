@@ -1,14 +1,50 @@
 package com.onidza.backend.repository;
 
+import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.entity.Order;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderDtoQueries {
+
+    String ORDER_DTO = """
+            select new com.onidza.backend.model.dto.order.OrderDTO(
+                o.id, o.orderDate, o.totalAmount, o.status, o.client.id)
+            from Order o
+            """;
+
+    // read paths select into OrderDTO, no managed entities, snapshots or client proxies
+    @Query(ORDER_DTO)
+    Slice<OrderDTO> findDtoSliceBy(Pageable pageable);
+
+    @Query(ORDER_DTO + "where o.client.id = :clientId")
+    Slice<OrderDTO> findDtoSliceByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    long countByClientId(Long id);
+
+    @Query(ORDER_DTO + "where o.id in :ids")
+    List<OrderDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(ORDER_DTO + "where o.client.id in :clientIds order by o.id")
+    List<OrderDTO> findDtosByClientIdIn(@Param("clientIds") Collection<Long> clientIds);
+
+    @Query(ORDER_DTO + "where o.id > :id order by o.id")
+    List<OrderDTO> findDtosByIdGreaterThan(@Param("id") Long id, Limit limit);
 
-    Page<Order> findByClientId(Long id, Pageable pageable);
+    @Query(ORDER_DTO + "where o.client.id = :clientId and o.id > :id order by o.id")
+    List<OrderDTO> findDtosByClientIdAndIdGreaterThan(
+            @Param("clientId") Long clientId,
+            @Param("id") Long id,
+            Limit limit
+    );
 }
@@ -1,17 +1,35 @@
 package com.onidza.backend.repository;
 
+import com.onidza.backend.model.dto.profile.ProfileDTO;
 import com.onidza.backend.model.entity.Profile;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProfileRepository extends JpaRepository<Profile, Long> {
 
-    @EntityGraph(attributePaths = "client")
-    @Query("select p from Profile p")
-    Page<Profile> findAllProfiles(Pageable pageable);
+    // the client owns the foreign key, so its id needs the join
+    String PROFILE_DTO = """
+            select new com.onidza.backend.model.dto.profile.ProfileDTO(
+                p.id, p.address, p.phone, c.id)
+            from Profile p
+            left join p.client c
+            """;
+
+    @Query(PROFILE_DTO)
+    Slice<ProfileDTO> findDtoSliceBy(Pageable pageable);
+
+    @Query(PROFILE_DTO + "where p.id > :id order by p.id")
+    List<ProfileDTO> findDtosByIdGreaterThan(@Param("id") Long id, Limit limit);
+
+    @Query(PROFILE_DTO + "where p.id in :ids")
+    List<ProfileDTO> findDtosByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,8 @@
+package com.onidza.backend.repository.projection;
+
+public interface CouponClientLink {
+
+    Long getCouponId();
+
+    Long getClientId();
+}
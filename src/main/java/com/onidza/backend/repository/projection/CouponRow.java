@@ -0,0 +1,12 @@
+package com.onidza.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+// coupon columns without the holders, CouponDTO needs a second query for those
+public record CouponRow(
+        Long id,
+        String code,
+        float discount,
+        LocalDateTime expirationDate
+) {
+}
@@ -1,25 +1,64 @@
 package com.onidza.backend.service.cache;
 
-import lombok.RequiredArgsConstructor;
-import org.springframework.cache.Cache;
-import org.springframework.cache.CacheManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.CacheMetrics;
+import com.onidza.backend.config.cache.RedisCircuitBreaker;
+import com.onidza.backend.config.cache.TwoTierCacheManager;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationBus;
+import com.onidza.backend.service.cache.invalidation.CacheInvalidationMessage;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.cache.invalidation.InvalidationReplayQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class CacheVersionService {
 
     private final StringRedisTemplate stringRedisTemplate;
-    private final CacheManager cacheManager;
+    private final TwoTierCacheManager cacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final MeterRegistry meterRegistry;
+    private final CacheMetrics metrics;
+    private final AppCacheProperties.Versions properties;
+    private final RedisCircuitBreaker breaker;
+    private final InvalidationReplayQueue replayQueue;
 
+    private final com.github.benmanes.caffeine.cache.Cache<String, Long> localVersions;
+
+    private static final byte[] ONE = "1".getBytes(StandardCharsets.UTF_8);
+
+    // fallback lookups seen on this thread while a caller tracks them, see tracked()
+    private static final ThreadLocal<int[]> FALLBACKS = new ThreadLocal<>();
+
+    // a missing version starts from the server time in microseconds, so once a version key expires
+    // its dataset never gets a number it had before and ETags built from versions stay unique
     private static final DefaultRedisScript<Long> INCRBY_SET_TTL_IF_NO_TTL =
             new DefaultRedisScript<>(
                     """
+                            if redis.call('EXISTS', KEYS[1]) == 0 then
+                              local t = redis.call('TIME')
+                              redis.call('SET', KEYS[1], t[1] .. string.format('%06d', tonumber(t[2])))
+                            end
                             local v = redis.call('INCRBY', KEYS[1], ARGV[1])
                             local ttl = redis.call('TTL', KEYS[1])
                             if ttl < 0 then
@@ -30,33 +69,243 @@ public class CacheVersionService {
                     Long.class
             );
 
+    private static final byte[] BUMP_SCRIPT =
+            INCRBY_SET_TTL_IF_NO_TTL.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+
+    private static final String BUMP_SHA = INCRBY_SET_TTL_IF_NO_TTL.getSha1();
+
+    public CacheVersionService(
+            StringRedisTemplate stringRedisTemplate,
+            TwoTierCacheManager cacheManager,
+            CacheInvalidationBus invalidationBus,
+            MeterRegistry meterRegistry,
+            CacheMetrics metrics,
+            AppCacheProperties cacheProperties,
+            RedisCircuitBreaker breaker,
+            InvalidationReplayQueue replayQueue
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheManager = cacheManager;
+        this.invalidationBus = invalidationBus;
+        this.meterRegistry = meterRegistry;
+        this.metrics = metrics;
+        this.properties = cacheProperties.getVersions();
+        this.breaker = breaker;
+        this.replayQueue = replayQueue;
+
+        this.localVersions = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .build();
+
+        invalidationBus.subscribe(this::onInvalidation);
+        breaker.onRecovery(this::replay);
+    }
+
     public long getKeyVersion(String key) {
-        long ttlSeconds = Duration.ofMinutes(2).toSeconds();
-        Long ver = stringRedisTemplate.execute(
-                INCRBY_SET_TTL_IF_NO_TTL,
-                List.of(key),
-                "0",
-                String.valueOf(ttlSeconds)
-        );
+        long start = System.nanoTime();
+
+        Long local = localVersions.getIfPresent(key);
+        if (local != null) {
+            metrics.versionLookup("local", System.nanoTime() - start);
+            return local;
+        }
+
+        Optional<String> stored = breaker.call(
+                () -> Optional.ofNullable(stringRedisTemplate.opsForValue().get(key)),
+                () -> null);
+        // caches are bypassed while Redis is unreachable, so any version works and none is remembered
+        if (stored == null) {
+            metrics.versionLookup("fallback", System.nanoTime() - start);
+            countFallback();
+            return 0L;
+        }
+
+        // a key that was never bumped, or has expired, gets its number on the next bump only;
+        // until then 0 names no particular content and is not remembered either
+        if (stored.isEmpty()) {
+            metrics.versionLookup("absent", System.nanoTime() - start);
+            countFallback();
+            return 0L;
+        }
+
+        long ver = parseVersion(stored.get());
+        localVersions.asMap().putIfAbsent(key, ver);
+        metrics.versionLookup("redis", System.nanoTime() - start);
+
+        return ver;
+    }
+
+    // runs the action, typically key generation, and tells whether every version it read was real;
+    // a fallback 0 is the same before and after a write, so nothing built on it may name content
+    public <T> Tracked<T> tracked(Supplier<T> action) {
+        int[] previous = FALLBACKS.get();
+        int[] fallbacks = new int[1];
+        FALLBACKS.set(fallbacks);
+        try {
+            T value = action.get();
+            return new Tracked<>(value, fallbacks[0] == 0);
+        } finally {
+            if (previous == null) {
+                FALLBACKS.remove();
+            } else {
+                previous[0] += fallbacks[0];
+                FALLBACKS.set(previous);
+            }
+        }
+    }
+
+    public record Tracked<T>(T value, boolean exact) {
+    }
+
+    public void execute(InvalidationPlan plan) {
+        if (plan.isEmpty()) return;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        List<byte[]> redisKeys = new ArrayList<>();
+        plan.evictions().forEach((region, keys) ->
+                keys.forEach(key -> redisKeys.add(cacheManager.remoteKey(region, key))));
+
+        List<String> versionKeys = new ArrayList<>(plan.versionKeys());
+
+        List<Object> results = breaker.call(() -> pipeline(redisKeys, versionKeys), () -> null);
+
+        // drop what this instance holds now, the Redis side is redone on recovery
+        if (results == null) {
+            plan.evictions().forEach((region, keys) -> keys.forEach(key -> cacheManager.evictLocal(region, key)));
+            replayQueue.add(plan);
+            return;
+        }
+
+        Map<String, Set<String>> evicted = new LinkedHashMap<>();
+        plan.evictions().forEach((region, keys) -> {
+            keys.forEach(key -> {
+                cacheManager.evictLocal(region, key);
+                evicted.computeIfAbsent(region, r -> new LinkedHashSet<>()).add(String.valueOf(key));
+            });
+            metrics.evicted(region, "plan", keys.size());
+        });
 
-        return ver == null ? 0L : ver;
+        Map<String, Long> versions = new LinkedHashMap<>();
+        int offset = redisKeys.isEmpty() ? 0 : 1;
+        for (int i = 0; i < versionKeys.size(); i++) {
+            if (results.get(offset + i) instanceof Long ver) {
+                versions.put(versionKeys.get(i), ver);
+            }
+        }
+        advance(versions);
+        versionKeys.forEach(metrics::versionBumped);
+
+        invalidationBus.publish(new CacheInvalidationMessage(null, evicted, Set.of(), versions));
+
+        sample.stop(meterRegistry.timer("cache.invalidation.plan"));
+        meterRegistry.summary("cache.invalidation.plan.size").record(plan.size());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.cache.versions.resync-interval:10s}",
+            initialDelayString = "${app.cache.versions.resync-interval:10s}"
+    )
+    public void resyncVersions() {
+        if (!breaker.available()) return;
+
+        List<String> keys = new ArrayList<>(localVersions.asMap().keySet());
+        int batchSize = properties.getResyncBatchSize();
+
+        try {
+            for (int from = 0; from < keys.size(); from += batchSize) {
+                List<String> batch = keys.subList(from, Math.min(from + batchSize, keys.size()));
+                List<String> values = breaker.call(() -> stringRedisTemplate.opsForValue().multiGet(batch), () -> null);
+                if (values == null) continue;
+
+                for (int i = 0; i < batch.size(); i++) {
+                    resyncVersion(batch.get(i), values.get(i));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to resync cache versions, known keys = {}", keys.size(), e);
+        }
+    }
+
+    // EVALSHA keeps the script body off the wire, after a Redis restart the script is loaded once and
+    // the plan resent, nothing in it ran since every bump failed with NOSCRIPT and DEL is idempotent
+    private List<Object> pipeline(List<byte[]> redisKeys, List<String> versionKeys) {
+        try {
+            return pipelineOnce(redisKeys, versionKeys);
+        } catch (DataAccessException e) {
+            if (versionKeys.isEmpty() || !isNoScript(e)) throw e;
+
+            stringRedisTemplate.execute((RedisCallback<String>) connection ->
+                    connection.scriptingCommands().scriptLoad(BUMP_SCRIPT));
+            return pipelineOnce(redisKeys, versionKeys);
+        }
+    }
+
+    private List<Object> pipelineOnce(List<byte[]> redisKeys, List<String> versionKeys) {
+        byte[] ttlSeconds = String.valueOf(properties.getTtl().toSeconds()).getBytes(StandardCharsets.UTF_8);
+
+        return stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (!redisKeys.isEmpty()) {
+                connection.keyCommands().del(redisKeys.toArray(byte[][]::new));
+            }
+
+            versionKeys.forEach(key -> connection.scriptingCommands().evalSha(
+                    BUMP_SHA,
+                    ReturnType.INTEGER,
+                    1,
+                    key.getBytes(StandardCharsets.UTF_8),
+                    ONE,
+                    ttlSeconds
+            ));
+            return null;
+        });
+    }
+
+    private static boolean isNoScript(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t.getMessage() != null && t.getMessage().contains("NOSCRIPT")) return true;
+        }
+
+        return false;
     }
 
-    public void bumpVersion(String key) {
-        long ttlSeconds = Duration.ofMinutes(2).toSeconds();
+    private void replay() {
+        List<InvalidationPlan> plans = replayQueue.drain();
+
+        if (replayQueue.takeClearAll()) {
+            log.warn("Clearing all cache regions after lost invalidations, dropped plans = {}", plans.size());
+            cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+            return;
+        }
 
-        stringRedisTemplate.execute(
-                INCRBY_SET_TTL_IF_NO_TTL,
-                List.of(key),
-                "1",
-                String.valueOf(ttlSeconds)
-        );
+        log.info("Replaying {} invalidation plans skipped while Redis was unavailable", plans.size());
+        plans.forEach(this::execute);
     }
 
-    public void evictCache(String region, Object key) {
-        Cache cache = cacheManager.getCache(region);
-        if (cache != null) {
-            cache.evict(key);
+    private void resyncVersion(String key, String value) {
+        if (value == null) {
+            localVersions.invalidate(key);
+            return;
         }
+
+        localVersions.asMap().merge(key, parseVersion(value), Math::max);
+    }
+
+    private void onInvalidation(CacheInvalidationMessage message) {
+        advance(message.versions());
+    }
+
+    // pub/sub has no ordering between publishers, a late message must not move a version back
+    private void advance(Map<String, Long> versions) {
+        versions.forEach((key, ver) -> localVersions.asMap().merge(key, ver, Math::max));
+    }
+
+    private static void countFallback() {
+        int[] fallbacks = FALLBACKS.get();
+        if (fallbacks != null) fallbacks[0]++;
+    }
+
+    private static long parseVersion(String value) {
+        return value == null ? 0L : Long.parseLong(value);
     }
 }
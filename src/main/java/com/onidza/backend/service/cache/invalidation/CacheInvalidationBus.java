@@ -0,0 +1,66 @@
+package com.onidza.backend.service.cache.invalidation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.RedisCircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AppCacheProperties properties;
+    private final RedisCircuitBreaker breaker;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Consumer<CacheInvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<CacheInvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    public void publish(CacheInvalidationMessage message) {
+        try {
+            String payload = objectMapper.writeValueAsString(message.withOrigin(instanceId));
+            boolean sent = breaker.run(() -> stringRedisTemplate.convertAndSend(
+                    properties.getInvalidationChannel(),
+                    payload
+            ));
+            if (!sent) log.debug("Skipped cache invalidation message while Redis is unavailable = {}", message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize CacheInvalidationMessage", e);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation message = {}", message, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+        } catch (IOException e) {
+            log.warn("Failed to read cache invalidation message", e);
+            return;
+        }
+
+        if (instanceId.equals(invalidation.origin())) return;
+
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+}
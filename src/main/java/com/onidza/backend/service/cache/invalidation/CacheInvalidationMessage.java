@@ -0,0 +1,28 @@
+package com.onidza.backend.service.cache.invalidation;
+
+import java.util.Map;
+import java.util.Set;
+
+public record CacheInvalidationMessage(
+        String origin,
+        Map<String, Set<String>> evictions,
+        Set<String> clearedRegions,
+        Map<String, Long> versions
+) {
+
+    public static CacheInvalidationMessage evict(String region, String key) {
+        return new CacheInvalidationMessage(null, Map.of(region, Set.of(key)), Set.of(), Map.of());
+    }
+
+    public static CacheInvalidationMessage clear(String region) {
+        return new CacheInvalidationMessage(null, Map.of(), Set.of(region), Map.of());
+    }
+
+    public static CacheInvalidationMessage version(String versionKey, long version) {
+        return new CacheInvalidationMessage(null, Map.of(), Set.of(), Map.of(versionKey, version));
+    }
+
+    public CacheInvalidationMessage withOrigin(String origin) {
+        return new CacheInvalidationMessage(origin, evictions, clearedRegions, versions);
+    }
+}
@@ -0,0 +1,60 @@
+package com.onidza.backend.service.cache.invalidation;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+public record InvalidationPlan(
+        Map<String, Set<Object>> evictions,
+        Set<String> versionKeys
+) {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        int evicted = evictions.values()
+                .stream()
+                .mapToInt(Set::size)
+                .sum();
+
+        return evicted + versionKeys.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Set<Object>> evictions = new LinkedHashMap<>();
+        private final Set<String> versionKeys = new LinkedHashSet<>();
+
+        private Builder() {
+        }
+
+        public Builder evict(String region, Object key) {
+            if (key != null) {
+                evictions.computeIfAbsent(region, r -> new LinkedHashSet<>()).add(key);
+            }
+            return this;
+        }
+
+        public Builder evictAll(String region, Collection<?> keys) {
+            keys.forEach(key -> evict(region, key));
+            return this;
+        }
+
+        public Builder bump(String versionKey) {
+            versionKeys.add(versionKey);
+            return this;
+        }
+
+        public InvalidationPlan build() {
+            return new InvalidationPlan(evictions, versionKeys);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.onidza.backend.service.cache.invalidation;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// invalidation work that could not reach Redis, replayed once the circuit breaker closes
+@Slf4j
+@Component
+public class InvalidationReplayQueue {
+
+    private final int capacity;
+
+    private final Queue<InvalidationPlan> plans = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean clearAll = new AtomicBoolean();
+
+    public InvalidationReplayQueue(AppCacheProperties cacheProperties, MeterRegistry meterRegistry) {
+        this.capacity = cacheProperties.getBreaker().getReplayCapacity();
+
+        Gauge.builder("cache.invalidation.pending", size, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    public void add(InvalidationPlan plan) {
+        if (size.incrementAndGet() > capacity) {
+            size.decrementAndGet();
+            requestClearAll();
+            return;
+        }
+
+        plans.add(plan);
+    }
+
+    // once single plans are lost, only clearing every region is safe
+    public void requestClearAll() {
+        if (!clearAll.getAndSet(true)) {
+            log.warn("Invalidation replay queue overflowed, all cache regions will be cleared on recovery");
+        }
+    }
+
+    public boolean takeClearAll() {
+        return clearAll.getAndSet(false);
+    }
+
+    public List<InvalidationPlan> drain() {
+        List<InvalidationPlan> drained = new ArrayList<>();
+
+        InvalidationPlan plan;
+        while ((plan = plans.poll()) != null) {
+            size.decrementAndGet();
+            drained.add(plan);
+        }
+
+        return drained;
+    }
+}
@@ -1,75 +1,103 @@
 package com.onidza.backend.service.cache.listeners;
 
+import com.onidza.backend.config.cache.AppCacheProperties;
 import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.config.cache.keys.CacheVersionKeys;
+import com.onidza.backend.model.enums.OrderStatus;
 import com.onidza.backend.model.events.client.ActionPart;
 import com.onidza.backend.model.events.client.ClientAddEvent;
 import com.onidza.backend.model.events.client.ClientDeletedEvent;
 import com.onidza.backend.model.events.client.ClientUpdateEvent;
 import com.onidza.backend.service.cache.CacheVersionService;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Set;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class ClientCacheInvalidationListener {
 
     private final CacheVersionService versionService;
+    private final AppCacheProperties cacheProperties;
+    private final Tombstones tombstones;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onClientAdded(ClientAddEvent e) {
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.TOMBSTONE_PREFIX, Tombstones.key(CacheKeys.CLIENT_KEY_PREFIX, e.clientId()))
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
 
-        versionService.bumpVersion(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
+                .evict(CacheKeys.TOMBSTONE_PREFIX, Tombstones.key(CacheKeys.PROFILE_KEY_PREFIX, e.profileId()))
+                .bump(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
 
         if (e.parts().contains(ActionPart.ORDERS)) {
-            versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
-            versionService.bumpVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER);
+            plan.bump(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
+            bumpFilterStatuses(plan, e.orderStatuses());
         }
 
         if (e.parts().contains(ActionPart.COUPONS))
-            versionService.bumpVersion(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+            plan.bump(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+
+        versionService.execute(plan.build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onClientUpdated(ClientUpdateEvent e) {
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.PROFILE_KEY_PREFIX, e.profileId())
+                .bump(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
 
-        versionService.evictCache(CacheKeys.PROFILE_KEY_PREFIX, e.profileId());
-        versionService.bumpVersion(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
+        if (!cacheProperties.isIdListPage(CacheKeys.CLIENTS_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+
+        versionService.execute(plan.build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onClientDeleted(ClientDeletedEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId())
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
 
-        versionService.evictCache(CacheKeys.PROFILE_KEY_PREFIX, e.profileId());
-        versionService.bumpVersion(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
+                .evict(CacheKeys.PROFILE_KEY_PREFIX, e.profileId())
+                .bump(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
 
         if (e.parts().contains(ActionPart.ORDERS)) {
-            e.orderIdsToEvict().forEach(id -> versionService.evictCache(
-                    CacheKeys.ORDER_KEY_PREFIX, id
-            ));
+            plan.evictAll(CacheKeys.ORDER_KEY_PREFIX, e.orderIdsToEvict());
 
-            versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
-            versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+            plan.bump(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
+            plan.bump(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
                     .formatted(e.clientId()));
-            versionService.bumpVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER);
+            bumpFilterStatuses(plan, e.orderStatuses());
         }
 
         if (e.parts().contains(ActionPart.COUPONS)) {
-            e.couponIdsToEvict().forEach(id -> versionService.evictCache(
-                    CacheKeys.COUPON_KEY_PREFIX, id)
-            );
+            plan.evictAll(CacheKeys.COUPON_KEY_PREFIX, e.couponIdsToEvict());
 
-            versionService.bumpVersion(CacheVersionKeys.COUPON_PAGE_VER_KEY);
-            versionService.bumpVersion(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+            plan.bump(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+            plan.bump(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
                     .formatted(e.clientId()));
         }
+
+        versionService.execute(plan.build());
+
+        tombstones.bury(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
+        tombstones.bury(CacheKeys.PROFILE_KEY_PREFIX, e.profileId());
+        if (e.parts().contains(ActionPart.ORDERS))
+            tombstones.buryAll(CacheKeys.ORDER_KEY_PREFIX, e.orderIdsToEvict());
+        if (e.parts().contains(ActionPart.COUPONS))
+            tombstones.buryAll(CacheKeys.COUPON_KEY_PREFIX, e.couponIdsToEvict());
+    }
+
+    private static void bumpFilterStatuses(InvalidationPlan.Builder plan, Set<OrderStatus> statuses) {
+        statuses.forEach(status -> plan.bump(
+                CacheVersionKeys.ORDERS_FILTER_STATUS_VER_FORMATTED_KEY.formatted(status)));
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package com.onidza.backend.service.cache.listeners;
 
+import com.onidza.backend.config.cache.AppCacheProperties;
 import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.config.cache.keys.CacheVersionKeys;
 import com.onidza.backend.model.events.coupon.CouponAddEvent;
 import com.onidza.backend.model.events.coupon.CouponDeleteEvent;
 import com.onidza.backend.model.events.coupon.CouponUpdateEvent;
 import com.onidza.backend.service.cache.CacheVersionService;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -18,40 +21,58 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class CouponCacheInvalidationListener {
 
     private final CacheVersionService versionService;
+    private final AppCacheProperties cacheProperties;
+    private final Tombstones tombstones;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onCouponAdded(CouponAddEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        versionService.execute(InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId())
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
 
-        versionService.bumpVersion(CacheVersionKeys.COUPON_PAGE_VER_KEY);
-        versionService.bumpVersion(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                .formatted(e.clientId()));
+                .evict(CacheKeys.TOMBSTONE_PREFIX, Tombstones.key(CacheKeys.COUPON_KEY_PREFIX, e.couponId()))
+                .bump(CacheVersionKeys.COUPON_PAGE_VER_KEY)
+                .bump(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                        .formatted(e.clientId()))
+                .build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onCouponUpdated(CouponUpdateEvent e) {
+        InvalidationPlan.Builder plan = InvalidationPlan.builder();
+
         e.clientIds().forEach(id -> {
-            versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, id);
-            versionService.bumpVersion(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                    .formatted(id));
+            plan.evict(CacheKeys.CLIENT_KEY_PREFIX, id);
+
+            if (!cacheProperties.isIdListPage(CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX))
+                plan.bump(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                        .formatted(id));
         });
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
 
-        versionService.bumpVersion(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+        if (!cacheProperties.isIdListPage(CacheKeys.CLIENTS_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+
+        if (!cacheProperties.isIdListPage(CacheKeys.COUPON_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+
+        versionService.execute(plan.build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onCouponDeleted(CouponDeleteEvent e) {
-        e.clientIds().forEach(id -> {
-            versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, id);
-            versionService.bumpVersion(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                    .formatted(id));
-        });
+        InvalidationPlan.Builder plan = InvalidationPlan.builder();
+
+        e.clientIds().forEach(id -> plan
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, id)
+                .bump(CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                        .formatted(id)));
+
+        plan.bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
 
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        plan.evict(CacheKeys.COUPON_KEY_PREFIX, e.couponId());
+        plan.bump(CacheVersionKeys.COUPON_PAGE_VER_KEY);
 
-        versionService.evictCache(CacheKeys.COUPON_KEY_PREFIX, e.couponId());
-        versionService.bumpVersion(CacheVersionKeys.COUPON_PAGE_VER_KEY);
+        versionService.execute(plan.build());
+        tombstones.bury(CacheKeys.COUPON_KEY_PREFIX, e.couponId());
     }
 }
@@ -1,11 +1,15 @@
 package com.onidza.backend.service.cache.listeners;
 
+import com.onidza.backend.config.cache.AppCacheProperties;
 import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.config.cache.keys.CacheVersionKeys;
+import com.onidza.backend.model.enums.OrderStatus;
 import com.onidza.backend.model.events.order.OrderAddEvent;
 import com.onidza.backend.model.events.order.OrderDeleteEvent;
 import com.onidza.backend.model.events.order.OrderUpdateEvent;
 import com.onidza.backend.service.cache.CacheVersionService;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -18,38 +22,71 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class OrderCacheInvalidationListener {
 
     private final CacheVersionService versionService;
+    private final AppCacheProperties cacheProperties;
+    private final Tombstones tombstones;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onOrderAdded(OrderAddEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId())
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
 
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                .formatted(e.clientId()));
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER);
+                .evict(CacheKeys.TOMBSTONE_PREFIX, Tombstones.key(CacheKeys.ORDER_KEY_PREFIX, e.orderId()))
+                .bump(CacheVersionKeys.ORDERS_PAGE_VER_KEY)
+                .bump(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                        .formatted(e.clientId()));
+
+        bumpFilterStatus(plan, e.status());
+
+        versionService.execute(plan.build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onOrderUpdated(OrderUpdateEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
+
+        if (!cacheProperties.isIdListPage(CacheKeys.CLIENTS_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+
+        if (!cacheProperties.isIdListPage(CacheKeys.ORDERS_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
+
+        if (!cacheProperties.isIdListPage(CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX))
+            plan.bump(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                    .formatted(e.clientId()));
+
+        // a status change moves the order between filter pages, so both id lists change,
+        // a date or amount change can move it in or out of range filters of its status
+        if (e.oldStatus() != e.newStatus()) {
+            bumpFilterStatus(plan, e.oldStatus());
+            bumpFilterStatus(plan, e.newStatus());
+        } else if (e.filterFieldsChanged() || !cacheProperties.isIdListPage(CacheKeys.ORDERS_FILTER_KEY_PREFIX)) {
+            bumpFilterStatus(plan, e.newStatus());
+        }
 
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                .formatted(e.clientId()));
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER);
+        versionService.execute(plan.build());
     }
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onOrderDeleted(OrderDeleteEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
-
-        versionService.evictCache(CacheKeys.ORDER_KEY_PREFIX, e.orderId());
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_VER_KEY);
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
-                .formatted(e.clientId()));
-        versionService.bumpVersion(CacheVersionKeys.ORDERS_FILTER_STATUS_KEY_VER);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId())
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
+
+                .evict(CacheKeys.ORDER_KEY_PREFIX, e.orderId())
+                .bump(CacheVersionKeys.ORDERS_PAGE_VER_KEY)
+                .bump(CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY
+                        .formatted(e.clientId()));
+
+        bumpFilterStatus(plan, e.status());
+
+        versionService.execute(plan.build());
+        tombstones.bury(CacheKeys.ORDER_KEY_PREFIX, e.orderId());
+    }
+
+    // an order without a status still shows up in filters without one, so it gets its own key
+    private static void bumpFilterStatus(InvalidationPlan.Builder plan, OrderStatus status) {
+        plan.bump(CacheVersionKeys.ORDERS_FILTER_STATUS_VER_FORMATTED_KEY.formatted(status));
     }
 }
@@ -1,9 +1,11 @@
 package com.onidza.backend.service.cache.listeners;
 
+import com.onidza.backend.config.cache.AppCacheProperties;
 import com.onidza.backend.config.cache.keys.CacheKeys;
 import com.onidza.backend.config.cache.keys.CacheVersionKeys;
 import com.onidza.backend.model.events.profile.ProfileUpdateEvent;
 import com.onidza.backend.service.cache.CacheVersionService;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -16,12 +18,17 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class ProfileCacheInvalidationListener {
 
     private final CacheVersionService versionService;
+    private final AppCacheProperties cacheProperties;
 
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     public void onProfileUpdated(ProfileUpdateEvent e) {
-        versionService.evictCache(CacheKeys.CLIENT_KEY_PREFIX, e.clientId());
-        versionService.bumpVersion(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+        InvalidationPlan.Builder plan = InvalidationPlan.builder()
+                .evict(CacheKeys.CLIENT_KEY_PREFIX, e.clientId())
+                .bump(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
 
-        versionService.bumpVersion(CacheVersionKeys.PROFILES_PAGE_VER_KEY);
+        if (!cacheProperties.isIdListPage(CacheKeys.CLIENTS_PAGE_PREFIX))
+            plan.bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY);
+
+        versionService.execute(plan.build());
     }
 }
@@ -0,0 +1,141 @@
+package com.onidza.backend.service.cache.prefetch;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.mode.CacheMode;
+import com.onidza.backend.config.cache.mode.CacheModeHolder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.IntConsumer;
+
+// loads page N + 1 in the background once a caller reads pages N - 1 and N in a row
+@Slf4j
+@Component
+public class PagePrefetcher {
+
+    private final AppCacheProperties.Prefetch properties;
+    private final CacheModeHolder modes;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolTaskExecutor executor;
+
+    // last page read per caller, dataset, scope and size
+    private final com.github.benmanes.caffeine.cache.Cache<String, Integer> streams;
+    // prefetched pages not read yet, an expired entry is a wasted prefetch
+    private final com.github.benmanes.caffeine.cache.Cache<String, String> prefetched;
+
+    private final ConcurrentMap<String, Future<?>> pending = new ConcurrentHashMap<>();
+
+    public PagePrefetcher(
+            AppCacheProperties cacheProperties,
+            CacheModeHolder modes,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = cacheProperties.getPrefetch();
+        this.modes = modes;
+        this.meterRegistry = meterRegistry;
+
+        this.streams = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxStreams())
+                .expireAfterAccess(properties.getStreamTtl())
+                .build();
+        this.prefetched = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxStreams())
+                .expireAfterWrite(properties.getUsedWindow())
+                .removalListener((String key, String dataset, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) count(dataset, "wasted");
+                })
+                .build();
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getThreads());
+        executor.setMaxPoolSize(properties.getThreads());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("cache-prefetch-");
+        executor.initialize();
+    }
+
+    public void onPage(String dataset, Object scope, int page, int size, boolean hasNext, IntConsumer loader) {
+        if (!properties.isEnabled() || modes.current() == CacheMode.NONE) return;
+
+        String pageKey = pageKey(dataset, scope, page, size);
+        if (prefetched.asMap().remove(pageKey) != null) count(dataset, "used");
+
+        String stream = caller() + "|" + pageKey(dataset, scope, -1, size);
+        Integer previous = streams.asMap().put(stream, page);
+
+        if (previous == null || previous != page - 1) {
+            cancel(stream, dataset);
+            return;
+        }
+        if (!hasNext) return;
+
+        int next = page + 1;
+        String nextKey = pageKey(dataset, scope, next, size);
+        if (prefetched.getIfPresent(nextKey) != null) return;
+
+        Runnable task = modes.propagate(() -> {
+            try {
+                loader.accept(next);
+                prefetched.put(nextKey, dataset);
+                count(dataset, "issued");
+            } catch (RuntimeException e) {
+                count(dataset, "failed");
+                log.debug("Page prefetch failed, dataset = {}, page = {}", dataset, next, e);
+            }
+        });
+
+        FutureTask<Void> future = new FutureTask<>(task, null) {
+            @Override
+            protected void done() {
+                pending.remove(stream, this);
+            }
+        };
+
+        Future<?> replaced = pending.put(stream, future);
+        if (replaced != null && replaced.cancel(false)) count(dataset, "cancelled");
+
+        try {
+            executor.execute(future);
+        } catch (TaskRejectedException e) {
+            pending.remove(stream, future);
+            count(dataset, "rejected");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pending.values().forEach(future -> future.cancel(true));
+        executor.shutdown();
+    }
+
+    // a non-sequential read means the queued prefetch is no longer worth the query
+    private void cancel(String stream, String dataset) {
+        Future<?> future = pending.remove(stream);
+        if (future != null && future.cancel(false)) count(dataset, "cancelled");
+    }
+
+    private static String pageKey(String dataset, Object scope, int page, int size) {
+        return dataset + "|" + scope + "|" + page + "|" + size;
+    }
+
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+
+    private void count(String dataset, String result) {
+        meterRegistry.counter("cache.prefetch", "dataset", dataset, "result", result).increment();
+    }
+}
@@ -0,0 +1,116 @@
+package com.onidza.backend.service.cache.raw;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.RedisCircuitBreaker;
+import com.onidza.backend.config.cache.TwoTierCacheManager;
+import com.onidza.backend.service.cache.CacheVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// serves the cached JSON of raw-response regions as is, everything else goes through the service
+@Component
+@RequiredArgsConstructor
+public class RawResponseCache {
+
+    private final TwoTierCacheManager cacheManager;
+    private final AppCacheProperties cacheProperties;
+    private final RedisCircuitBreaker breaker;
+    private final CacheVersionService versionService;
+    private final Map<String, KeyGenerator> keyGenerators;
+
+    // the same key the service's @Cacheable computes, the generators only look at the params;
+    // a key built from a fallback version comes back wrapped so serve never tags it
+    public Object key(String keyGenerator, Object... params) {
+        KeyGenerator generator = keyGenerators.get(keyGenerator);
+        if (generator == null) throw new IllegalArgumentException("Unknown key generator = " + keyGenerator);
+
+        CacheVersionService.Tracked<Object> key = versionService.tracked(() -> generator.generate(this, null, params));
+        return key.exact() ? key.value() : new FallbackKey(key.value());
+    }
+
+    public <T> ResponseEntity<?> serve(String region, Object key, Supplier<T> loader) {
+        return serve(region, key, loader, value -> { });
+    }
+
+    // onServed gets the loaded value, or null when the raw body was served or not sent at all
+    public <T> ResponseEntity<?> serve(String region, Object key, Supplier<T> loader, Consumer<T> onServed) {
+        String etag = key instanceof FallbackKey ? null : etag(region, key);
+        if (key instanceof FallbackKey fallback) key = fallback.key();
+
+        if (etag != null && notModified(etag)) {
+            onServed.accept(null);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        byte[] body = cacheManager.getRaw(region, key);
+        if (body != null) {
+            onServed.accept(null);
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(body);
+        }
+
+        T value = loader.get();
+        onServed.accept(value);
+
+        return ResponseEntity.ok().eTag(etag).body(value);
+    }
+
+    // a versioned key names the exact content of a page, except in id-list regions where
+    // entity updates change the items without a version bump, in stale-while-revalidate regions
+    // where a newer version can still be answered with the previous body, and while the breaker is open
+    private String etag(String region, Object key) {
+        if (!(key instanceof String versioned) || !versioned.contains("ver=")) return null;
+        if (cacheProperties.isIdListPage(region) || cacheProperties.getRegion(region).isStaleWhileRevalidate()) {
+            return null;
+        }
+        if (!breaker.available()) return null;
+
+        byte[] hash = sha256(region + ":" + versioned);
+        return "\"" + HexFormat.of().formatHex(Arrays.copyOf(hash, 16)) + "\"";
+    }
+
+    private record FallbackKey(Object key) {
+    }
+
+    private static boolean notModified(String etag) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) return false;
+
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
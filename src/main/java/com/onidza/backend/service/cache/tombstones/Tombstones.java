@@ -0,0 +1,66 @@
+package com.onidza.backend.service.cache.tombstones;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.CacheMetrics;
+import com.onidza.backend.config.cache.TwoTierCacheManager;
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// ids known to be missing from the database, a repeated lookup stops at the cache instead of Postgres
+@Component
+public class Tombstones {
+
+    private final TwoTierCacheManager cacheManager;
+    private final CacheMetrics metrics;
+    private final AppCacheProperties.Tombstones properties;
+
+    public Tombstones(TwoTierCacheManager cacheManager, CacheMetrics metrics, AppCacheProperties cacheProperties) {
+        this.cacheManager = cacheManager;
+        this.metrics = metrics;
+        this.properties = cacheProperties.getTombstones();
+    }
+
+    public void checkNotBuried(String region, Object id, String message) {
+        if (!properties.isEnabled()) return;
+
+        if (cacheManager.getAll(CacheKeys.TOMBSTONE_PREFIX, List.of(key(region, id))).isEmpty()) return;
+
+        metrics.tombstone(region, "hit");
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    }
+
+    public ResponseStatusException notFound(String region, Object id, String message) {
+        bury(region, id);
+
+        return new ResponseStatusException(HttpStatus.NOT_FOUND, message);
+    }
+
+    public void bury(String region, Object id) {
+        buryAll(region, List.of(id));
+    }
+
+    // written past the transaction-aware decorator, a not-found lookup rolls its transaction back
+    public void buryAll(String region, Collection<?> ids) {
+        if (!properties.isEnabled() || ids.isEmpty()) return;
+
+        Map<Object, Object> values = new LinkedHashMap<>();
+        ids.forEach(id -> {
+            if (id != null) values.put(key(region, id), Boolean.TRUE);
+        });
+        if (values.isEmpty()) return;
+
+        cacheManager.putAll(CacheKeys.TOMBSTONE_PREFIX, values);
+        metrics.tombstone(region, "written");
+    }
+
+    public static String key(String region, Object id) {
+        return region + ":" + id;
+    }
+}
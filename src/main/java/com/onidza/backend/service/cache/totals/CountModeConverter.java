@@ -0,0 +1,17 @@
+package com.onidza.backend.service.cache.totals;
+
+import com.onidza.backend.model.enums.CountMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// lets request params say count=exact|none|estimated, an unknown mode fails the binding with 400
+@Component
+public class CountModeConverter implements Converter<String, CountMode> {
+
+    @Override
+    public CountMode convert(String source) {
+        return CountMode.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,96 @@
+package com.onidza.backend.service.cache.totals;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.service.cache.CacheVersionService;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+// totals keyed by dataset and version only, so every page number and size shares one count
+@Component
+public class PageTotals {
+
+    private static final String TOTALS_KEY_FORMAT = "%s:ver=%d";
+
+    private final Cache totals;
+    private final CacheVersionService versionService;
+    private final AppCacheProperties.Totals properties;
+
+    public PageTotals(
+            CacheManager cacheManager,
+            CacheVersionService versionService,
+            AppCacheProperties cacheProperties
+    ) {
+        this.totals = cacheManager.getCache(CacheKeys.PAGE_TOTALS_PREFIX);
+        this.versionService = versionService;
+        this.properties = cacheProperties.getTotals();
+    }
+
+    public <T> Page<T> page(
+            Slice<T> slice,
+            CountMode mode,
+            String dataset,
+            String versionKey,
+            LongSupplier counter,
+            LongSupplier estimator
+    ) {
+        return page(
+                slice,
+                mode,
+                TOTALS_KEY_FORMAT.formatted(dataset, versionService.getKeyVersion(versionKey)),
+                counter,
+                estimator
+        );
+    }
+
+    public <T> Page<T> page(
+            Slice<T> slice,
+            CountMode mode,
+            String totalsKey,
+            LongSupplier counter,
+            LongSupplier estimator
+    ) {
+        long offset = slice.getPageable().getOffset();
+
+        // the last page tells the total by itself
+        if (!slice.hasNext() && (slice.hasContent() || offset == 0)) {
+            return new PageImpl<>(slice.getContent(), slice.getPageable(), offset + slice.getNumberOfElements());
+        }
+
+        return switch (mode) {
+            case NONE -> new UncountedPage<>(slice.getContent(), slice.getPageable(), slice.hasNext());
+            case ESTIMATED -> estimated(slice, totalsKey, counter, estimator);
+            case EXACT -> counted(slice, totalsKey, counter);
+        };
+    }
+
+    // an unanalyzed table has no estimate, it is small enough to count
+    private <T> Page<T> estimated(Slice<T> slice, String totalsKey, LongSupplier counter, LongSupplier estimator) {
+        long estimate = estimator.getAsLong();
+        if (estimate < 0) return counted(slice, totalsKey, counter);
+
+        // the estimate lags behind writes, it never claims fewer rows than the pages already seen
+        long seen = slice.getPageable().getOffset() + slice.getNumberOfElements() + 1;
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), Math.max(estimate, seen));
+    }
+
+    private <T> Page<T> counted(Slice<T> slice, String totalsKey, LongSupplier counter) {
+        if (properties.isSkipCountBeyondFirstPage() && slice.getNumber() > 0) {
+            Long cached = totals.get(totalsKey, Long.class);
+
+            return cached == null
+                    ? new UncountedPage<>(slice.getContent(), slice.getPageable(), slice.hasNext())
+                    : new PageImpl<>(slice.getContent(), slice.getPageable(), cached);
+        }
+
+        Long total = totals.get(totalsKey, counter::getAsLong);
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total == null ? 0 : total);
+    }
+}
@@ -0,0 +1,50 @@
+package com.onidza.backend.service.cache.totals;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+// row counts from the Postgres planner, -1 when there is no usable estimate
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RowEstimates {
+
+    public static final long UNKNOWN = -1;
+
+    private static final String TABLE_ROWS_SQL = "select reltuples::bigint from pg_class where oid = to_regclass(?)";
+    private static final String EXPLAIN_PREFIX = "explain (format json) ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    // reltuples is refreshed by vacuum and analyze, it stays -1 until the table is analyzed once
+    public long table(String table) {
+        try {
+            Long rows = jdbcTemplate.queryForObject(TABLE_ROWS_SQL, Long.class, table);
+            return rows == null || rows < 0 ? UNKNOWN : rows;
+        } catch (DataAccessException e) {
+            log.debug("Failed to read row estimate, table = {}", table, e);
+            return UNKNOWN;
+        }
+    }
+
+    public long plan(String sql, Object... args) {
+        try {
+            String plan = jdbcTemplate.queryForObject(EXPLAIN_PREFIX + sql, String.class, args);
+            if (plan == null) return UNKNOWN;
+
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isNumber() ? rows.asLong() : UNKNOWN;
+        } catch (DataAccessException | IOException e) {
+            log.debug("Failed to read plan estimate, sql = {}", sql, e);
+            return UNKNOWN;
+        }
+    }
+}
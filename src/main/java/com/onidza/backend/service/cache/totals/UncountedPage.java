@@ -0,0 +1,31 @@
+package com.onidza.backend.service.cache.totals;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.function.Function;
+
+// a page whose total was not counted, totals are reported as -1
+public class UncountedPage<T> extends SliceImpl<T> implements Page<T> {
+
+    public UncountedPage(List<T> content, Pageable pageable, boolean hasNext) {
+        super(content, pageable, hasNext);
+    }
+
+    @Override
+    public int getTotalPages() {
+        return -1;
+    }
+
+    @Override
+    public long getTotalElements() {
+        return -1;
+    }
+
+    @Override
+    public <U> Page<U> map(Function<? super T, ? extends U> converter) {
+        return new UncountedPage<>(getConvertedContent(converter), getPageable(), hasNext());
+    }
+}
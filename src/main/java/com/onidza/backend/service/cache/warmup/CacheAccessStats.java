@@ -0,0 +1,97 @@
+package com.onidza.backend.service.cache.warmup;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+@Component
+public class CacheAccessStats {
+
+    public static final Set<String> TRACKED_REGIONS = Set.of(
+            CacheKeys.CLIENT_KEY_PREFIX,
+            CacheKeys.ORDER_KEY_PREFIX,
+            CacheKeys.COUPON_KEY_PREFIX,
+            CacheKeys.PROFILE_KEY_PREFIX
+    );
+
+    private static final String STATS_KEY_FORMAT = "cache:access:%s";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AppCacheProperties.Warmup properties;
+
+    private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> counts = new ConcurrentHashMap<>();
+
+    public CacheAccessStats(StringRedisTemplate stringRedisTemplate, AppCacheProperties cacheProperties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = cacheProperties.getWarmup();
+
+        TRACKED_REGIONS.forEach(region -> counts.put(region, new ConcurrentHashMap<>()));
+    }
+
+    public void record(String region, Object key) {
+        ConcurrentMap<String, LongAdder> regionCounts = counts.get(region);
+        if (regionCounts == null) return;
+
+        String id = String.valueOf(key);
+        LongAdder count = regionCounts.get(id);
+        if (count == null) {
+            if (regionCounts.size() >= properties.getStatsMaxKeys()) return;
+            count = regionCounts.computeIfAbsent(id, k -> new LongAdder());
+        }
+
+        count.increment();
+    }
+
+    public List<Long> topIds(String region, int limit) {
+        Set<String> ids = stringRedisTemplate.opsForZSet()
+                .reverseRange(STATS_KEY_FORMAT.formatted(region), 0, limit - 1L);
+        if (ids == null) return List.of();
+
+        return ids.stream().map(Long::valueOf).toList();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.cache.warmup.stats-flush-interval:30s}",
+            initialDelayString = "${app.cache.warmup.stats-flush-interval:30s}"
+    )
+    public void flush() {
+        Map<String, Map<String, Long>> snapshot = new HashMap<>();
+        TRACKED_REGIONS.forEach(region -> {
+            Map<String, Long> drained = new HashMap<>();
+            counts.put(region, new ConcurrentHashMap<>())
+                    .forEach((id, count) -> drained.put(id, count.sum()));
+
+            if (!drained.isEmpty()) snapshot.put(region, drained);
+        });
+        if (snapshot.isEmpty()) return;
+
+        long ttlSeconds = properties.getStatsTtl().toSeconds();
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                snapshot.forEach((region, drained) -> {
+                    byte[] key = STATS_KEY_FORMAT.formatted(region).getBytes(StandardCharsets.UTF_8);
+                    drained.forEach((id, count) -> connection.zSetCommands()
+                            .zIncrBy(key, count, id.getBytes(StandardCharsets.UTF_8)));
+                    connection.keyCommands().expire(key, ttlSeconds);
+                });
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to flush cache access stats, regions = {}", snapshot.keySet(), e);
+        }
+    }
+}
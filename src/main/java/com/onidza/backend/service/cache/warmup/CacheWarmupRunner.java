@@ -0,0 +1,117 @@
+package com.onidza.backend.service.cache.warmup;
+
+import com.onidza.backend.config.cache.AppCacheProperties;
+import com.onidza.backend.config.cache.admission.CacheAdmission;
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.service.client.ClientService;
+import com.onidza.backend.service.coupon.CouponService;
+import com.onidza.backend.service.order.OrderService;
+import com.onidza.backend.service.profile.ProfileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+// runs before ApplicationReadyEvent, so readiness stays OUT_OF_SERVICE until the hot set is loaded
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.cache.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CacheWarmupRunner implements ApplicationRunner {
+
+    private final AppCacheProperties.Warmup properties;
+    private final CacheAccessStats accessStats;
+
+    private final Map<String, BiConsumer<Integer, Integer>> pages = new LinkedHashMap<>();
+    private final Map<String, Consumer<Long>> entities = new LinkedHashMap<>();
+
+    public CacheWarmupRunner(
+            AppCacheProperties cacheProperties,
+            CacheAccessStats accessStats,
+            ClientService clientService,
+            OrderService orderService,
+            CouponService couponService,
+            ProfileService profileService
+    ) {
+        this.properties = cacheProperties.getWarmup();
+        this.accessStats = accessStats;
+
+        // requests default to exact counts, so those are the pages worth warming
+        pages.put(CacheKeys.ORDERS_PAGE_PREFIX, (page, size) -> orderService.getOrdersPage(page, size, CountMode.EXACT));
+        pages.put(CacheKeys.CLIENTS_PAGE_PREFIX, (page, size) -> clientService.getClientsPage(page, size, CountMode.EXACT));
+        pages.put(CacheKeys.PROFILES_PAGE_PREFIX, (page, size) -> profileService.getProfilesPage(page, size, CountMode.EXACT));
+        pages.put(CacheKeys.COUPON_PAGE_PREFIX, (page, size) -> couponService.getCouponsPage(page, size, CountMode.EXACT));
+
+        entities.put(CacheKeys.CLIENT_KEY_PREFIX, clientService::getClient);
+        entities.put(CacheKeys.ORDER_KEY_PREFIX, orderService::getOrder);
+        entities.put(CacheKeys.COUPON_KEY_PREFIX, couponService::getCoupon);
+        entities.put(CacheKeys.PROFILE_KEY_PREFIX, profileService::getProfile);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long start = System.nanoTime();
+        List<Runnable> tasks = tasks();
+
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        try {
+            tasks.forEach(task -> executor.execute(() -> {
+                try {
+                    CacheAdmission.admitAll(task);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.debug("Cache warm-up task failed", e);
+                }
+            }));
+        } finally {
+            executor.shutdown();
+        }
+
+        boolean completed = executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (!completed) executor.shutdownNow();
+
+        log.info("Cache warm-up {}, tasks = {}, failed = {}, took = {} ms",
+                completed ? "finished" : "timed out",
+                tasks.size(),
+                failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private List<Runnable> tasks() {
+        List<Runnable> tasks = new ArrayList<>();
+
+        pages.forEach((region, loader) -> properties.getPageSizes().forEach(size -> {
+            for (int page = 0; page < properties.getPageCount(); page++) {
+                int p = page;
+                tasks.add(() -> loader.accept(p, size));
+            }
+        }));
+
+        entities.forEach((region, loader) -> {
+            List<Long> ids;
+            try {
+                ids = accessStats.topIds(region, properties.getTopEntities());
+            } catch (RuntimeException e) {
+                log.warn("Failed to read access stats for region = {}", region, e);
+                return;
+            }
+
+            ids.forEach(id -> tasks.add(() -> loader.accept(id)));
+        });
+
+        return tasks;
+    }
+}
@@ -0,0 +1,71 @@
+package com.onidza.backend.service.client;
+
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.entity.Client;
+import com.onidza.backend.model.mappers.MapperService;
+import com.onidza.backend.repository.CouponRepository;
+import com.onidza.backend.repository.OrderRepository;
+import com.onidza.backend.repository.projection.CouponClientLink;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// maps clients with a fixed number of set-based queries instead of walking lazy collections per client:
+// orders, coupon links and coupon rows, the clients themselves come with their profile already joined
+@Component
+@RequiredArgsConstructor
+public class ClientReadAssembler {
+
+    private final OrderRepository orderRepository;
+    private final CouponRepository couponRepository;
+    private final MapperService mapperService;
+
+    public ClientDTO toDTO(Client client) {
+        return toDTOs(List.of(client)).get(0);
+    }
+
+    public List<ClientDTO> toDTOs(List<Client> clients) {
+        if (clients.isEmpty()) return List.of();
+
+        List<Long> clientIds = clients.stream().map(Client::getId).toList();
+
+        Map<Long, List<OrderDTO>> orders = orderRepository.findDtosByClientIdIn(clientIds)
+                .stream()
+                .collect(Collectors.groupingBy(OrderDTO::clientId, LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, List<Long>> holders = couponRepository.findCouponLinksByClientIdIn(clientIds)
+                .stream()
+                .collect(Collectors.groupingBy(
+                        CouponClientLink::getCouponId,
+                        LinkedHashMap::new,
+                        Collectors.mapping(CouponClientLink::getClientId, Collectors.toList())));
+
+        Map<Long, CouponDTO> coupons = holders.isEmpty() ? Map.of() : couponRepository.findRowsByIdIn(holders.keySet())
+                .stream()
+                .map(row -> mapperService.couponToDTO(row, holders.get(row.id())))
+                .collect(Collectors.toMap(CouponDTO::id, Function.identity()));
+
+        Map<Long, List<CouponDTO>> clientCoupons = new LinkedHashMap<>();
+        holders.forEach((couponId, clientIdsOfCoupon) -> clientIdsOfCoupon.forEach(clientId ->
+                clientCoupons.computeIfAbsent(clientId, id -> new ArrayList<>()).add(coupons.get(couponId))));
+
+        List<ClientDTO> result = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            result.add(mapperService.clientToDTO(
+                    client,
+                    orders.getOrDefault(client.getId(), List.of()),
+                    clientCoupons.getOrDefault(client.getId(), List.of())
+            ));
+        }
+
+        return result;
+    }
+}
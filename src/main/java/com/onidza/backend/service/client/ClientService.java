@@ -1,14 +1,18 @@
 package com.onidza.backend.service.client;
 
 import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsCursorPageDTO;
 import com.onidza.backend.model.dto.client.ClientsPageDTO;
 import com.onidza.backend.model.dto.client.ClientsUpdateDTO;
+import com.onidza.backend.model.enums.CountMode;
 
 public interface ClientService {
 
     ClientDTO getClient(Long id);
 
-    ClientsPageDTO getClientsPage(int page, int size);
+    ClientsPageDTO getClientsPage(int page, int size, CountMode count);
+
+    ClientsCursorPageDTO getClientsAfter(long after, int size);
 
     ClientDTO createClient(ClientDTO clientDTO);
 
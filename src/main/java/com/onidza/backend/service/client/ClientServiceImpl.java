@@ -1,24 +1,34 @@
 package com.onidza.backend.service.client;
 
 import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.keys.CacheVersionKeys;
 import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsCursorPageDTO;
 import com.onidza.backend.model.dto.client.ClientsPageDTO;
 import com.onidza.backend.model.dto.client.ClientsUpdateDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.dto.profile.ProfileDTO;
 import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Coupon;
 import com.onidza.backend.model.entity.Order;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.model.enums.OrderStatus;
 import com.onidza.backend.model.events.client.ActionPart;
 import com.onidza.backend.model.events.client.ClientAddEvent;
 import com.onidza.backend.model.events.client.ClientDeletedEvent;
 import com.onidza.backend.model.events.client.ClientUpdateEvent;
 import com.onidza.backend.model.mappers.MapperService;
 import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
+import com.onidza.backend.service.cache.totals.PageTotals;
+import com.onidza.backend.service.cache.totals.RowEstimates;
+import com.onidza.backend.service.pagination.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +41,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -42,9 +53,14 @@ public class ClientServiceImpl implements ClientService {
 
     private final ClientRepository clientRepository;
     private final MapperService mapperService;
+    private final PageTotals pageTotals;
+    private final RowEstimates rowEstimates;
+    private final Tombstones tombstones;
+    private final ClientReadAssembler readAssembler;
     private final ApplicationEventPublisher publisher;
 
     private static final String CLIENT_NOT_FOUND = "Client not found";
+    private static final String CLIENTS_TABLE = "clients";
 
     @Override
     @Cacheable(
@@ -54,33 +70,41 @@ public class ClientServiceImpl implements ClientService {
     @Transactional(readOnly = true)
     public ClientDTO getClient(Long clientId) {
         log.info("ClientServiceImpl called getClient with id = {}", clientId);
+        tombstones.checkNotBuried(CacheKeys.CLIENT_KEY_PREFIX, clientId, CLIENT_NOT_FOUND);
 
-        return mapperService
-                .clientToDTO(clientRepository.findById(clientId)
+        return readAssembler
+                .toDTO(clientRepository.findById(clientId)
                         .orElseThrow(() ->
-                                new ResponseStatusException(HttpStatus.NOT_FOUND,
+                                tombstones.notFound(CacheKeys.CLIENT_KEY_PREFIX, clientId,
                                         CLIENT_NOT_FOUND)));
     }
 
     @Override
     @Cacheable(
             cacheNames = CacheKeys.CLIENTS_PAGE_PREFIX,
-            keyGenerator = "clientPageKeyGen"
+            keyGenerator = "clientPageKeyGen",
+            sync = true
     )
     @Transactional(readOnly = true)
-    public ClientsPageDTO getClientsPage(int page, int size) {
-        log.info("ClientServiceImpl called getClientsPage, page = {}, size = {}", page, size);
+    public ClientsPageDTO getClientsPage(int page, int size, CountMode count) {
+        log.info("ClientServiceImpl called getClientsPage, page = {}, size = {}, count = {}", page, size, count);
 
         Pageable pageable = PageRequest.of(
                 page,
                 size,
                 Sort.by(Sort.Direction.ASC, "id"));
 
-        Page<ClientDTO> result = clientRepository.findAll(pageable)
-                .map(mapperService::clientToDTO);
+        Page<Client> result = pageTotals.page(
+                clientRepository.findSliceBy(pageable),
+                count,
+                CacheKeys.CLIENTS_PAGE_PREFIX,
+                CacheVersionKeys.CLIENTS_PAGE_VER_KEY,
+                clientRepository::count,
+                () -> rowEstimates.table(CLIENTS_TABLE)
+        );
 
         return new ClientsPageDTO(
-                result.getContent(),
+                readAssembler.toDTOs(result.getContent()),
                 result.getNumber(),
                 result.getSize(),
                 result.getTotalElements(),
@@ -89,6 +113,27 @@ public class ClientServiceImpl implements ClientService {
         );
     }
 
+
+    @Override
+    @Cacheable(
+            cacheNames = CacheKeys.CLIENTS_CURSOR_PREFIX,
+            keyGenerator = "clientCursorKeyGen",
+            sync = true
+    )
+    @Transactional(readOnly = true)
+    public ClientsCursorPageDTO getClientsAfter(long after, int size) {
+        log.info("ClientServiceImpl called getClientsAfter, after = {}, size = {}", after, size);
+
+        List<Client> rows = clientRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(size + 1));
+        List<ClientDTO> items = readAssembler.toDTOs(rows.stream().limit(size).toList());
+
+        return new ClientsCursorPageDTO(
+                items,
+                size,
+                Cursors.next(items, ClientDTO::id, rows.size() > size)
+        );
+    }
+
     @Override
     @Transactional
     public ClientDTO createClient(ClientDTO clientDTO) {
@@ -96,7 +141,7 @@ public class ClientServiceImpl implements ClientService {
 
         Client saved = clientRepository.save(mapperService.clientDTOToEntity(clientDTO));
 
-        ClientAddEvent event = buildAddEvent(clientDTO);
+        ClientAddEvent event = buildAddEvent(saved, clientDTO);
         publisher.publishEvent(event);
 
         return mapperService.clientToDTO(saved);
@@ -144,7 +189,7 @@ public class ClientServiceImpl implements ClientService {
         clientRepository.deleteById(clientId);
     }
 
-    private ClientAddEvent buildAddEvent(ClientDTO clientDTO) {
+    private ClientAddEvent buildAddEvent(Client saved, ClientDTO clientDTO) {
         EnumSet<ActionPart> parts = EnumSet.noneOf(ActionPart.class);
 
         if (!CollectionUtils.isEmpty(clientDTO.orders()))
@@ -153,7 +198,16 @@ public class ClientServiceImpl implements ClientService {
         if (!CollectionUtils.isEmpty(clientDTO.coupons()))
             parts.add(ActionPart.COUPONS);
 
-        return new ClientAddEvent(parts);
+        Set<OrderStatus> orderStatuses = CollectionUtils.isEmpty(clientDTO.orders())
+                ? Set.of()
+                : clientDTO.orders()
+                        .stream()
+                        .map(OrderDTO::status)
+                        .collect(Collectors.toSet());
+
+        Long profileId = saved.getProfile() == null ? null : saved.getProfile().getId();
+
+        return new ClientAddEvent(saved.getId(), profileId, parts, orderStatuses);
     }
 
     private ClientUpdateEvent buildClientUpdateEvent(Client existing) {
@@ -205,6 +259,11 @@ public class ClientServiceImpl implements ClientService {
             parts.add(ActionPart.ORDERS);
         }
 
+        Set<OrderStatus> orderStatuses = existing.getOrders()
+                .stream()
+                .map(Order::getStatus)
+                .collect(Collectors.toSet());
+
         Set<Long> couponIds = existing.getCoupons()
                 .stream()
                 .map(Coupon::getId)
@@ -219,6 +278,7 @@ public class ClientServiceImpl implements ClientService {
                 clientId,
                 profileId,
                 orderIds,
+                orderStatuses,
                 couponIds,
                 parts
         );
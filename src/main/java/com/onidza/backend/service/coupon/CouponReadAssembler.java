@@ -0,0 +1,37 @@
+package com.onidza.backend.service.coupon;
+
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.mappers.MapperService;
+import com.onidza.backend.repository.CouponRepository;
+import com.onidza.backend.repository.projection.CouponClientLink;
+import com.onidza.backend.repository.projection.CouponRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// coupon rows plus one query for the holders of all of them, no coupon or client entities are loaded
+@Component
+@RequiredArgsConstructor
+public class CouponReadAssembler {
+
+    private final CouponRepository couponRepository;
+    private final MapperService mapperService;
+
+    public List<CouponDTO> toDTOs(List<CouponRow> rows) {
+        if (rows.isEmpty()) return List.of();
+
+        Map<Long, List<Long>> holders = couponRepository
+                .findClientLinksByCouponIdIn(rows.stream().map(CouponRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(
+                        CouponClientLink::getCouponId,
+                        Collectors.mapping(CouponClientLink::getClientId, Collectors.toList())));
+
+        return rows.stream()
+                .map(row -> mapperService.couponToDTO(row, holders.getOrDefault(row.id(), List.of())))
+                .toList();
+    }
+}
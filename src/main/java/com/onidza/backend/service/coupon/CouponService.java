@@ -2,14 +2,20 @@ package com.onidza.backend.service.coupon;
 
 import com.onidza.backend.model.dto.coupon.CouponDTO;
 import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponsCursorPageDTO;
+import com.onidza.backend.model.enums.CountMode;
 
 public interface CouponService {
 
     CouponDTO getCoupon(Long id);
 
-    CouponPageDTO getCouponsPage(int page, int size);
+    CouponPageDTO getCouponsPage(int page, int size, CountMode count);
 
-    CouponPageDTO getCouponsByClientIdPage(Long id, int page, int size);
+    CouponPageDTO getCouponsByClientIdPage(Long id, int page, int size, CountMode count);
+
+    CouponsCursorPageDTO getCouponsAfter(long after, int size);
+
+    CouponsCursorPageDTO getCouponsByClientIdAfter(Long id, long after, int size);
 
     CouponDTO createCouponForClient(Long id, CouponDTO couponDTO);
 
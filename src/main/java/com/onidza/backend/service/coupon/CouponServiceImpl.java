@@ -1,21 +1,30 @@
 package com.onidza.backend.service.coupon;
 
 import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.keys.CacheVersionKeys;
 import com.onidza.backend.model.dto.coupon.CouponDTO;
 import com.onidza.backend.model.dto.coupon.CouponPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponsCursorPageDTO;
 import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Coupon;
+import com.onidza.backend.model.enums.CountMode;
 import com.onidza.backend.model.events.coupon.CouponAddEvent;
 import com.onidza.backend.model.events.coupon.CouponDeleteEvent;
 import com.onidza.backend.model.events.coupon.CouponUpdateEvent;
 import com.onidza.backend.model.mappers.MapperService;
 import com.onidza.backend.repository.ClientRepository;
 import com.onidza.backend.repository.CouponRepository;
+import com.onidza.backend.repository.projection.CouponRow;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
+import com.onidza.backend.service.cache.totals.PageTotals;
+import com.onidza.backend.service.cache.totals.RowEstimates;
+import com.onidza.backend.service.pagination.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +34,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -38,9 +48,16 @@ public class CouponServiceImpl implements CouponService {
 
     private final ApplicationEventPublisher publisher;
     private final MapperService mapperService;
+    private final PageTotals pageTotals;
+    private final RowEstimates rowEstimates;
+    private final CouponReadAssembler readAssembler;
+    private final Tombstones tombstones;
 
     private static final String COUPON_NOT_FOUND = "Coupon not found";
 
+    private static final String COUPONS_TABLE = "coupons";
+    private static final String COUPONS_BY_CLIENT_SQL = "select 1 from client_coupons where client_id = ?";
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
@@ -49,20 +66,22 @@ public class CouponServiceImpl implements CouponService {
     )
     public CouponDTO getCoupon(Long id) {
         log.info("CouponServiceImpl called getCoupon with id = {}", id);
+        tombstones.checkNotBuried(CacheKeys.COUPON_KEY_PREFIX, id, COUPON_NOT_FOUND);
 
         return mapperService.couponToDTO(couponRepository.findById(id)
                 .orElseThrow(()
-                        -> new ResponseStatusException(HttpStatus.NOT_FOUND, COUPON_NOT_FOUND)));
+                        -> tombstones.notFound(CacheKeys.COUPON_KEY_PREFIX, id, COUPON_NOT_FOUND)));
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheKeys.COUPON_PAGE_PREFIX,
-            keyGenerator = "couponPageKeyGen"
+            keyGenerator = "couponPageKeyGen",
+            sync = true
     )
-    public CouponPageDTO getCouponsPage(int page, int size) {
-        log.info("CouponServiceImpl called getCouponsPage, page = {}, size = {}", page, size);
+    public CouponPageDTO getCouponsPage(int page, int size, CountMode count) {
+        log.info("CouponServiceImpl called getCouponsPage, page = {}, size = {}, count = {}", page, size, count);
 
         Pageable pageable = PageRequest.of(
                 page,
@@ -70,11 +89,17 @@ public class CouponServiceImpl implements CouponService {
                 Sort.by(Sort.Direction.ASC, "id")
         );
 
-        Page<CouponDTO> result = couponRepository.findAll(pageable)
-                .map(mapperService::couponToDTO);
+        Page<CouponRow> result = pageTotals.page(
+                couponRepository.findRowSliceBy(pageable),
+                count,
+                CacheKeys.COUPON_PAGE_PREFIX,
+                CacheVersionKeys.COUPON_PAGE_VER_KEY,
+                couponRepository::count,
+                () -> rowEstimates.table(COUPONS_TABLE)
+        );
 
         return new CouponPageDTO(
-                result.getContent(),
+                readAssembler.toDTOs(result.getContent()),
                 result.getNumber(),
                 result.getSize(),
                 result.getTotalElements(),
@@ -87,9 +112,10 @@ public class CouponServiceImpl implements CouponService {
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX,
-            keyGenerator = "couponPageByClientIdKeyGen"
+            keyGenerator = "couponPageByClientIdKeyGen",
+            sync = true
     )
-    public CouponPageDTO getCouponsByClientIdPage(Long clientId, int page, int size) {
+    public CouponPageDTO getCouponsByClientIdPage(Long clientId, int page, int size, CountMode count) {
         log.info("CouponServiceImpl called getCouponsByClientIdPage with id = {}", clientId);
 
         Pageable pageable = PageRequest.of(
@@ -98,11 +124,17 @@ public class CouponServiceImpl implements CouponService {
                 Sort.by(Sort.Direction.ASC, "id")
         );
 
-        Page<CouponDTO> result = couponRepository.findDistinctByClientsId(clientId, pageable)
-                .map(mapperService::couponToDTO);
+        Page<CouponRow> result = pageTotals.page(
+                couponRepository.findRowSliceByClientId(clientId, pageable),
+                count,
+                CacheKeys.COUPONS_PAGE_BY_CLIENT_ID_PREFIX + ":clientId=" + clientId,
+                CacheVersionKeys.COUPONS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY.formatted(clientId),
+                () -> couponRepository.countDistinctByClientsId(clientId),
+                () -> rowEstimates.plan(COUPONS_BY_CLIENT_SQL, clientId)
+        );
 
         return new CouponPageDTO(
-                result.getContent(),
+                readAssembler.toDTOs(result.getContent()),
                 result.getNumber(),
                 result.getSize(),
                 result.getTotalElements(),
@@ -111,6 +143,47 @@ public class CouponServiceImpl implements CouponService {
         );
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.COUPONS_CURSOR_PREFIX,
+            keyGenerator = "couponCursorKeyGen",
+            sync = true
+    )
+    public CouponsCursorPageDTO getCouponsAfter(long after, int size) {
+        log.info("CouponServiceImpl called getCouponsAfter, after = {}, size = {}", after, size);
+
+        List<CouponRow> rows = couponRepository.findRowsByIdGreaterThan(after, Limit.of(size + 1));
+        List<CouponDTO> items = readAssembler.toDTOs(rows.stream().limit(size).toList());
+
+        return new CouponsCursorPageDTO(
+                items,
+                size,
+                Cursors.next(items, CouponDTO::id, rows.size() > size)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.COUPONS_CURSOR_BY_CLIENT_ID_PREFIX,
+            keyGenerator = "couponCursorByClientIdKeyGen",
+            sync = true
+    )
+    public CouponsCursorPageDTO getCouponsByClientIdAfter(Long clientId, long after, int size) {
+        log.info("CouponServiceImpl called getCouponsByClientIdAfter with id = {}, after = {}", clientId, after);
+
+        List<CouponRow> rows = couponRepository.findRowsByClientIdAndIdGreaterThan(
+                clientId, after, Limit.of(size + 1));
+        List<CouponDTO> items = readAssembler.toDTOs(rows.stream().limit(size).toList());
+
+        return new CouponsCursorPageDTO(
+                items,
+                size,
+                Cursors.next(items, CouponDTO::id, rows.size() > size)
+        );
+    }
+
     @Override
     @Transactional
     public CouponDTO createCouponForClient(Long clientId, CouponDTO couponDTO) {
@@ -125,7 +198,7 @@ public class CouponServiceImpl implements CouponService {
 
         client.setBiCouponClient(savedCoupon);
 
-        publisher.publishEvent(new CouponAddEvent(clientId));
+        publisher.publishEvent(new CouponAddEvent(clientId, savedCoupon.getId()));
 
         return mapperService.couponToDTO(savedCoupon);
     }
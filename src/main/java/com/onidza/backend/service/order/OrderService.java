@@ -2,15 +2,17 @@ package com.onidza.backend.service.order;
 
 import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.dto.order.OrderFilterDTO;
+import com.onidza.backend.model.dto.order.OrdersCursorPageDTO;
 import com.onidza.backend.model.dto.order.OrdersPageDTO;
+import com.onidza.backend.model.enums.CountMode;
 
 public interface OrderService {
 
     OrderDTO getOrder(Long id);
 
-    OrdersPageDTO getOrdersPage(int page, int size);
+    OrdersPageDTO getOrdersPage(int page, int size, CountMode count);
 
-    OrdersPageDTO getOrdersByClientIdPage(Long id, int page, int size);
+    OrdersPageDTO getOrdersByClientIdPage(Long id, int page, int size, CountMode count);
 
     OrderDTO updateOrder(Long id, OrderDTO orderDTO);
 
@@ -18,5 +20,11 @@ public interface OrderService {
 
     void deleteOrder(Long id);
 
-    OrdersPageDTO getOrdersByFilter(OrderFilterDTO filter, int page, int size);
+    OrdersPageDTO getOrdersByFilter(OrderFilterDTO filter, int page, int size, CountMode count);
+
+    OrdersCursorPageDTO getOrdersAfter(long after, int size);
+
+    OrdersCursorPageDTO getOrdersByClientIdAfter(Long id, long after, int size);
+
+    OrdersCursorPageDTO getOrdersByFilterAfter(OrderFilterDTO filter, long after, int size);
 }
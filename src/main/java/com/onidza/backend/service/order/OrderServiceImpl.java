@@ -1,35 +1,52 @@
 package com.onidza.backend.service.order;
 
 import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.keys.CacheVersionKeys;
+import com.onidza.backend.config.cache.keys.OrderFilterCanonicalizer;
 import com.onidza.backend.model.dto.kafka.OrderCreateEvent;
 import com.onidza.backend.model.dto.order.OrderDTO;
 import com.onidza.backend.model.dto.order.OrderFilterDTO;
+import com.onidza.backend.model.dto.order.OrdersCursorPageDTO;
 import com.onidza.backend.model.dto.order.OrdersPageDTO;
 import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Order;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.model.enums.OrderStatus;
 import com.onidza.backend.model.enums.RetryableTaskType;
 import com.onidza.backend.model.events.order.OrderAddEvent;
 import com.onidza.backend.model.events.order.OrderDeleteEvent;
 import com.onidza.backend.model.events.order.OrderUpdateEvent;
+import com.onidza.backend.model.filters.OrderFilterSql;
 import com.onidza.backend.model.filters.OrderSpecification;
 import com.onidza.backend.model.mappers.MapperService;
 import com.onidza.backend.repository.ClientRepository;
 import com.onidza.backend.repository.OrderRepository;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
+import com.onidza.backend.service.cache.totals.PageTotals;
+import com.onidza.backend.service.cache.totals.RowEstimates;
+import com.onidza.backend.service.pagination.Cursors;
 import com.onidza.backend.service.retryable.RetryableTaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.function.Function;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -41,10 +58,17 @@ public class OrderServiceImpl implements OrderService {
     private final ApplicationEventPublisher publisher;
     private final MapperService mapperService;
     private final RetryableTaskService retryableTaskService;
+    private final OrderFilterCanonicalizer filterCanonicalizer;
+    private final PageTotals pageTotals;
+    private final RowEstimates rowEstimates;
+    private final Tombstones tombstones;
 
     private static final String ORDER_NOT_FOUND = "Order not found";
     private static final String CLIENT_NOT_FOUND = "Client not found";
 
+    private static final String ORDERS_TABLE = "orders";
+    private static final String ORDERS_BY_CLIENT_SQL = "select 1 from orders where client_id = ?";
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
@@ -53,20 +77,22 @@ public class OrderServiceImpl implements OrderService {
     )
     public OrderDTO getOrder(Long orderId) {
         log.info("OrderServiceImpl called getOrder with id = {}", orderId);
+        tombstones.checkNotBuried(CacheKeys.ORDER_KEY_PREFIX, orderId, ORDER_NOT_FOUND);
 
         return mapperService.orderToDTO(orderRepository.findById(orderId)
                 .orElseThrow(()
-                        -> new ResponseStatusException(HttpStatus.NOT_FOUND, ORDER_NOT_FOUND)));
+                        -> tombstones.notFound(CacheKeys.ORDER_KEY_PREFIX, orderId, ORDER_NOT_FOUND)));
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheKeys.ORDERS_PAGE_PREFIX,
-            keyGenerator = "orderPageKeyGen"
+            keyGenerator = "orderPageKeyGen",
+            sync = true
     )
-    public OrdersPageDTO getOrdersPage(int page, int size) {
-        log.info("OrderServiceImpl called getOrdersPage, page = {}, size = {}", page, size);
+    public OrdersPageDTO getOrdersPage(int page, int size, CountMode count) {
+        log.info("OrderServiceImpl called getOrdersPage, page = {}, size = {}, count = {}", page, size, count);
 
         Pageable pageable = PageRequest.of(
                 page,
@@ -74,9 +100,14 @@ public class OrderServiceImpl implements OrderService {
                 Sort.by(Sort.Direction.ASC, "id")
         );
 
-        Page<OrderDTO> result = orderRepository
-                .findAll(pageable)
-                .map(mapperService::orderToDTO);
+        Page<OrderDTO> result = pageTotals.page(
+                orderRepository.findDtoSliceBy(pageable),
+                count,
+                CacheKeys.ORDERS_PAGE_PREFIX,
+                CacheVersionKeys.ORDERS_PAGE_VER_KEY,
+                orderRepository::count,
+                () -> rowEstimates.table(ORDERS_TABLE)
+        );
 
         return new OrdersPageDTO(
                 result.getContent(),
@@ -92,9 +123,10 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX,
-            keyGenerator = "orderPageByClientIdKeyGen"
+            keyGenerator = "orderPageByClientIdKeyGen",
+            sync = true
     )
-    public OrdersPageDTO getOrdersByClientIdPage(Long clientId, int page, int size) {
+    public OrdersPageDTO getOrdersByClientIdPage(Long clientId, int page, int size, CountMode count) {
         log.info("OrderServiceImpl called getOrdersByClientIdPage with id = {}", clientId);
 
         Pageable pageable = PageRequest.of(
@@ -103,9 +135,14 @@ public class OrderServiceImpl implements OrderService {
                 Sort.by(Sort.Direction.ASC, "id")
         );
 
-        Page<OrderDTO> result = orderRepository
-                .findByClientId(clientId, pageable)
-                .map(mapperService::orderToDTO);
+        Page<OrderDTO> result = pageTotals.page(
+                orderRepository.findDtoSliceByClientId(clientId, pageable),
+                count,
+                CacheKeys.ORDERS_PAGE_BY_CLIENT_ID_PREFIX + ":clientId=" + clientId,
+                CacheVersionKeys.ORDERS_PAGE_BY_CLIENT_ID_VER_FORMATTED_KEY.formatted(clientId),
+                () -> orderRepository.countByClientId(clientId),
+                () -> rowEstimates.plan(ORDERS_BY_CLIENT_SQL, clientId)
+        );
 
         return new OrdersPageDTO(
                 result.getContent(),
@@ -120,11 +157,11 @@ public class OrderServiceImpl implements OrderService {
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
-            cacheNames = CacheKeys.ORDERS_FILTER_STATUS_KEY_PREFIX,
-            keyGenerator = "filterStatusKeyGen",
-            condition = "#root.target.isStatusOnlyFilter(filter)"
+            cacheNames = CacheKeys.ORDERS_FILTER_KEY_PREFIX,
+            keyGenerator = "orderFilterKeyGen",
+            sync = true
     )
-    public OrdersPageDTO getOrdersByFilter(OrderFilterDTO filter, int page, int size) {
+    public OrdersPageDTO getOrdersByFilter(OrderFilterDTO filter, int page, int size, CountMode count) {
         log.info("OrderServiceImpl called getOrdersByFilter with filter = {}", filter);
 
         Pageable pageable = PageRequest.of(
@@ -132,10 +169,16 @@ public class OrderServiceImpl implements OrderService {
                 size,
                 Sort.by(Sort.Direction.ASC, "id"));
 
-        Page<OrderDTO> result = orderRepository.findAll(
-                OrderSpecification.byFilter(filter),
-                pageable
-        ).map(mapperService::orderToDTO);
+        Specification<Order> spec = OrderSpecification.byFilter(filter);
+        OrderFilterSql estimateSql = OrderFilterSql.of(filter);
+
+        Page<OrderDTO> result = pageTotals.page(
+                orderRepository.findDtoSlice(spec, pageable),
+                count,
+                CacheKeys.ORDERS_FILTER_KEY_PREFIX + ":" + filterCanonicalizer.datasetKey(filter),
+                () -> orderRepository.count(spec),
+                () -> rowEstimates.plan(estimateSql.sql(), estimateSql.args().toArray())
+        );
 
         return new OrdersPageDTO(
                 result.getContent(),
@@ -147,6 +190,67 @@ public class OrderServiceImpl implements OrderService {
         );
     }
 
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.ORDERS_CURSOR_PREFIX,
+            keyGenerator = "orderCursorKeyGen",
+            sync = true
+    )
+    public OrdersCursorPageDTO getOrdersAfter(long after, int size) {
+        log.info("OrderServiceImpl called getOrdersAfter, after = {}, size = {}", after, size);
+
+        return Cursors.page(
+                orderRepository.findDtosByIdGreaterThan(after, Limit.of(size + 1)),
+                size,
+                Function.identity(),
+                OrderDTO::id,
+                (items, next) -> new OrdersCursorPageDTO(items, size, next)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.ORDERS_CURSOR_BY_CLIENT_ID_PREFIX,
+            keyGenerator = "orderCursorByClientIdKeyGen",
+            sync = true
+    )
+    public OrdersCursorPageDTO getOrdersByClientIdAfter(Long clientId, long after, int size) {
+        log.info("OrderServiceImpl called getOrdersByClientIdAfter with id = {}, after = {}", clientId, after);
+
+        return Cursors.page(
+                orderRepository.findDtosByClientIdAndIdGreaterThan(clientId, after, Limit.of(size + 1)),
+                size,
+                Function.identity(),
+                OrderDTO::id,
+                (items, next) -> new OrdersCursorPageDTO(items, size, next)
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.ORDERS_FILTER_CURSOR_PREFIX,
+            keyGenerator = "orderFilterCursorKeyGen",
+            sync = true
+    )
+    public OrdersCursorPageDTO getOrdersByFilterAfter(OrderFilterDTO filter, long after, int size) {
+        log.info("OrderServiceImpl called getOrdersByFilterAfter with filter = {}, after = {}", filter, after);
+
+        Specification<Order> spec = OrderSpecification.byFilter(filter)
+                .and(OrderSpecification.idGreaterThan(after));
+
+        return Cursors.page(
+                orderRepository.findDtos(spec, Sort.by(Sort.Direction.ASC, "id"), size + 1),
+                size,
+                Function.identity(),
+                OrderDTO::id,
+                (items, next) -> new OrdersCursorPageDTO(items, size, next)
+        );
+    }
+
     @Override
     @Transactional
     public OrderDTO createOrderForClient(Long clientId, OrderDTO orderDTO) {
@@ -158,8 +262,9 @@ public class OrderServiceImpl implements OrderService {
 
         Order order = mapperService.orderDTOToEntity(orderDTO);
         order.setBiClientOrder(client);
+        Order saved = orderRepository.save(order);
 
-        publisher.publishEvent(new OrderAddEvent(clientId));
+        publisher.publishEvent(new OrderAddEvent(clientId, saved.getId(), saved.getStatus()));
 
         OrderCreateEvent kafkaEvent = OrderCreateEvent.builder()
                 .clientId(clientId)
@@ -173,7 +278,7 @@ public class OrderServiceImpl implements OrderService {
                 RetryableTaskType.SEND_CREATE_NOTIFICATION_REQUEST
         );
 
-        return mapperService.orderToDTO(orderRepository.save(order));
+        return mapperService.orderToDTO(saved);
     }
 
     @Override
@@ -189,9 +294,18 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(()
                         -> new ResponseStatusException(HttpStatus.NOT_FOUND, ORDER_NOT_FOUND));
 
+        OrderStatus oldStatus = existing.getStatus();
+        LocalDateTime oldDate = existing.getOrderDate();
+        BigDecimal oldAmount = existing.getTotalAmount();
         existing.updateOrder(mapperService.orderDTOToEntity(orderDTO));
 
-        publisher.publishEvent(new OrderUpdateEvent(existing.getClient().getId(), orderId));
+        publisher.publishEvent(new OrderUpdateEvent(
+                existing.getClient().getId(),
+                orderId,
+                oldStatus,
+                existing.getStatus(),
+                filterFieldsChanged(existing, oldDate, oldAmount)
+        ));
 
         return mapperService.orderToDTO(existing);
     }
@@ -206,16 +320,15 @@ public class OrderServiceImpl implements OrderService {
 
         order.removeOrderFromClient();
 
-        publisher.publishEvent(new OrderDeleteEvent(order.getClient().getId(), orderId));
+        publisher.publishEvent(new OrderDeleteEvent(order.getClient().getId(), orderId, order.getStatus()));
 
         orderRepository.deleteById(orderId);
     }
 
-    public boolean isStatusOnlyFilter(OrderFilterDTO filter) {
-        return filter.status() != null
-                && filter.fromDate() == null
-                && filter.toDate() == null
-                && filter.minAmount() == null
-                && filter.maxAmount() == null;
+    private static boolean filterFieldsChanged(Order existing, LocalDateTime oldDate, BigDecimal oldAmount) {
+        if (!Objects.equals(oldDate, existing.getOrderDate())) return true;
+        if (oldAmount == null || existing.getTotalAmount() == null) return oldAmount != existing.getTotalAmount();
+
+        return oldAmount.compareTo(existing.getTotalAmount()) != 0;
     }
 }
@@ -0,0 +1,64 @@
+package com.onidza.backend.service.pagination;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Cursors {
+
+    private static final String TOKEN_PREFIX = "id:";
+
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((TOKEN_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // no token starts from the beginning, ids are positive
+    public static long decode(String token) {
+        if (token == null || token.isBlank()) return 0L;
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(TOKEN_PREFIX)) throw new IllegalArgumentException(decoded);
+
+            long lastId = Long.parseLong(decoded.substring(TOKEN_PREFIX.length()));
+            if (lastId < 0) throw new IllegalArgumentException(decoded);
+
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    // rows are fetched with size + 1, the extra one only tells that a next page exists
+    public static <E, D, P> P page(
+            List<E> rows,
+            int size,
+            Function<E, D> mapper,
+            Function<D, Long> id,
+            BiFunction<List<D>, String, P> page
+    ) {
+        boolean hasNext = rows.size() > size;
+        List<D> items = rows.stream()
+                .limit(size)
+                .map(mapper)
+                .toList();
+
+        return page.apply(items, next(items, id, hasNext));
+    }
+
+    public static <D> String next(List<D> items, Function<D, Long> id, boolean hasNext) {
+        if (!hasNext || items.isEmpty()) return null;
+
+        return encode(id.apply(items.get(items.size() - 1)));
+    }
+}
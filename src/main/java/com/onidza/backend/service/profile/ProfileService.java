@@ -1,13 +1,17 @@
 package com.onidza.backend.service.profile;
 
 import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.dto.profile.ProfilesCursorPageDTO;
 import com.onidza.backend.model.dto.profile.ProfilesPageDTO;
+import com.onidza.backend.model.enums.CountMode;
 
 public interface ProfileService {
 
     ProfileDTO getProfile(Long id);
 
-    ProfilesPageDTO getProfilesPage(int page, int size);
+    ProfilesPageDTO getProfilesPage(int page, int size, CountMode count);
+
+    ProfilesCursorPageDTO getProfilesAfter(long after, int size);
 
     ProfileDTO updateProfile(Long id, ProfileDTO profileDTO);
 }
@@ -1,19 +1,27 @@
 package com.onidza.backend.service.profile;
 
 import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.keys.CacheVersionKeys;
 import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.dto.profile.ProfilesCursorPageDTO;
 import com.onidza.backend.model.dto.profile.ProfilesPageDTO;
 import com.onidza.backend.model.entity.Client;
 import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.model.enums.CountMode;
 import com.onidza.backend.model.events.profile.ProfileUpdateEvent;
 import com.onidza.backend.model.mappers.MapperService;
 import com.onidza.backend.repository.ClientRepository;
 import com.onidza.backend.repository.ProfileRepository;
+import com.onidza.backend.service.cache.tombstones.Tombstones;
+import com.onidza.backend.service.cache.totals.PageTotals;
+import com.onidza.backend.service.cache.totals.RowEstimates;
+import com.onidza.backend.service.pagination.Cursors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +31,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.function.Function;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -32,8 +42,14 @@ public class ProfileServiceImpl implements ProfileService {
     private final ClientRepository clientRepository;
 
     private final MapperService mapperService;
+    private final PageTotals pageTotals;
+    private final RowEstimates rowEstimates;
+    private final Tombstones tombstones;
     private final ApplicationEventPublisher publisher;
 
+    private static final String PROFILE_NOT_FOUND = "Profile not found";
+    private static final String PROFILES_TABLE = "profiles";
+
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
@@ -42,28 +58,36 @@ public class ProfileServiceImpl implements ProfileService {
     )
     public ProfileDTO getProfile(Long profileId) {
         log.info("ProfileServiceImpl getProfile with id = {}", profileId);
+        tombstones.checkNotBuried(CacheKeys.PROFILE_KEY_PREFIX, profileId, PROFILE_NOT_FOUND);
 
         return mapperService.profileToDTO(profileRepository.findById(profileId)
                 .orElseThrow(()
-                        -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Profile not found")));
+                        -> tombstones.notFound(CacheKeys.PROFILE_KEY_PREFIX, profileId, PROFILE_NOT_FOUND)));
     }
 
     @Override
     @Transactional(readOnly = true)
     @Cacheable(
             cacheNames = CacheKeys.PROFILES_PAGE_PREFIX,
-            keyGenerator = "profilePageKeyGen"
+            keyGenerator = "profilePageKeyGen",
+            sync = true
     )
-    public ProfilesPageDTO getProfilesPage(int page, int size) {
-        log.info("ProfileServiceImpl getProfilesPage, page = {}, size = {}", page, size);
+    public ProfilesPageDTO getProfilesPage(int page, int size, CountMode count) {
+        log.info("ProfileServiceImpl getProfilesPage, page = {}, size = {}, count = {}", page, size, count);
 
         Pageable pageable = PageRequest.of(
                 page,
                 size,
                 Sort.by(Sort.Direction.ASC, "id"));
 
-        Page<ProfileDTO> result = profileRepository.findAllProfiles(pageable)
-                .map(mapperService::profileToDTO);
+        Page<ProfileDTO> result = pageTotals.page(
+                profileRepository.findDtoSliceBy(pageable),
+                count,
+                CacheKeys.PROFILES_PAGE_PREFIX,
+                CacheVersionKeys.PROFILES_PAGE_VER_KEY,
+                profileRepository::count,
+                () -> rowEstimates.table(PROFILES_TABLE)
+        );
 
         return new ProfilesPageDTO(
                 result.getContent(),
@@ -75,6 +99,26 @@ public class ProfileServiceImpl implements ProfileService {
         );
     }
 
+
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(
+            cacheNames = CacheKeys.PROFILES_CURSOR_PREFIX,
+            keyGenerator = "profileCursorKeyGen",
+            sync = true
+    )
+    public ProfilesCursorPageDTO getProfilesAfter(long after, int size) {
+        log.info("ProfileServiceImpl getProfilesAfter, after = {}, size = {}", after, size);
+
+        return Cursors.page(
+                profileRepository.findDtosByIdGreaterThan(after, Limit.of(size + 1)),
+                size,
+                Function.identity(),
+                ProfileDTO::id,
+                (items, next) -> new ProfilesCursorPageDTO(items, size, next)
+        );
+    }
+
     @Override
     @Transactional
     @CachePut(
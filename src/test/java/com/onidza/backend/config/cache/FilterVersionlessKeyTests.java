@@ -0,0 +1,44 @@
+package com.onidza.backend.config.cache;
+
+import com.onidza.backend.config.cache.keys.OrderFilterCanonicalizer;
+import com.onidza.backend.model.dto.order.OrderFilterDTO;
+import com.onidza.backend.service.cache.CacheVersionService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FilterVersionlessKeyTests {
+
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    private final OrderFilterCanonicalizer canonicalizer = canonicalizer();
+
+    @Test
+    void statusLessFilterKeepsItsVersionlessKeyAcrossStatusBumps() {
+        OrderFilterDTO filter = new OrderFilterDTO(null, null, null, BigDecimal.ONE, BigDecimal.TEN);
+
+        String before = canonicalizer.datasetKey(filter);
+        versions.merge("orders:filter:status:PAID:ver", 1L, Long::sum);
+        String after = canonicalizer.datasetKey(filter);
+
+        assertThat(after).isNotEqualTo(before);
+        assertThat(TwoTierCache.versionlessKey(after + ":p=0:s=20"))
+                .isEqualTo(TwoTierCache.versionlessKey(before + ":p=0:s=20"))
+                .doesNotContain("ver=");
+    }
+
+    private OrderFilterCanonicalizer canonicalizer() {
+        CacheVersionService versionService = mock(CacheVersionService.class);
+        when(versionService.getKeyVersion(anyString()))
+                .thenAnswer(call -> versions.computeIfAbsent(call.getArgument(0), k -> 1_700_000_000_000_000L));
+
+        return new OrderFilterCanonicalizer(versionService);
+    }
+}
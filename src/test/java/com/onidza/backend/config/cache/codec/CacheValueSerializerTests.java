@@ -0,0 +1,149 @@
+package com.onidza.backend.config.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.dto.profile.ProfileDTO;
+import com.onidza.backend.model.enums.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class CacheValueSerializerTests {
+
+    private static final int ITERATIONS = 2_000;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void roundTripsClientsPageWithEveryCodec() {
+        ClientsPageDTO page = clientsPage();
+
+        serializers().forEach((name, serializer) ->
+                assertThat(serializer.deserialize(serializer.serialize(page)))
+                        .as(name)
+                        .isEqualTo(page));
+    }
+
+    @Test
+    void readsForeignPayloadAsMiss() {
+        byte[] json = new Jackson2JsonRedisSerializer<>(objectMapper, ClientsPageDTO.class)
+                .serialize(clientsPage());
+
+        assertThat(new BinaryRedisSerializer<>(DtoBinaryCodecs.CLIENTS_PAGE).deserialize(json)).isNull();
+    }
+
+    @Test
+    void readsUnframedBinaryPayloadAsMiss() {
+        byte[] unframed = new BinaryRedisSerializer<>(DtoBinaryCodecs.CLIENTS_PAGE).serialize(clientsPage());
+
+        CompressingRedisSerializer<ClientsPageDTO> framed = new CompressingRedisSerializer<>(
+                new BinaryRedisSerializer<>(DtoBinaryCodecs.CLIENTS_PAGE), CacheCompression.LZ4, 512);
+
+        assertThat(framed.deserialize(unframed)).isNull();
+    }
+
+    @Test
+    void roundTripsDecimalsLongerThanOneByteLength() {
+        OrderDTO order = new OrderDTO(1L, null, new BigDecimal(BigInteger.TEN.pow(1_000), 2), OrderStatus.NEW, 1L);
+        RedisSerializer<OrderDTO> binary = new BinaryRedisSerializer<>(DtoBinaryCodecs.ORDER);
+
+        assertThat(binary.deserialize(binary.serialize(order))).isEqualTo(order);
+    }
+
+    @Test
+    void reportsBytesAndCostAgainstJson() {
+        ClientsPageDTO page = clientsPage();
+
+        serializers().forEach((name, serializer) -> {
+            byte[] bytes = serializer.serialize(page);
+            for (int i = 0; i < ITERATIONS; i++) serializer.deserialize(serializer.serialize(page));
+
+            long encodeStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) serializer.serialize(page);
+            long encodeNanos = (System.nanoTime() - encodeStart) / ITERATIONS;
+
+            long decodeStart = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) serializer.deserialize(bytes);
+            long decodeNanos = (System.nanoTime() - decodeStart) / ITERATIONS;
+
+            log.info("codec = {}, bytes/entry = {}, encode = {} us, decode = {} us",
+                    name, bytes.length, encodeNanos / 1_000, decodeNanos / 1_000);
+        });
+
+        Map<String, RedisSerializer<ClientsPageDTO>> serializers = serializers();
+        assertThat(serializers.get("binary").serialize(page).length)
+                .isLessThan(serializers.get("json").serialize(page).length);
+    }
+
+    private Map<String, RedisSerializer<ClientsPageDTO>> serializers() {
+        RedisSerializer<ClientsPageDTO> json = new Jackson2JsonRedisSerializer<>(objectMapper, ClientsPageDTO.class);
+        RedisSerializer<ClientsPageDTO> binary = new BinaryRedisSerializer<>(DtoBinaryCodecs.CLIENTS_PAGE);
+
+        Map<String, RedisSerializer<ClientsPageDTO>> serializers = new LinkedHashMap<>();
+        serializers.put("json", json);
+        serializers.put("json+lz4", new CompressingRedisSerializer<>(json, CacheCompression.LZ4, 512));
+        serializers.put("json+zstd", new CompressingRedisSerializer<>(json, CacheCompression.ZSTD, 512));
+        serializers.put("binary", binary);
+        serializers.put("binary+lz4", new CompressingRedisSerializer<>(binary, CacheCompression.LZ4, 512));
+        serializers.put("binary+zstd", new CompressingRedisSerializer<>(binary, CacheCompression.ZSTD, 512));
+
+        return serializers;
+    }
+
+    private static ClientsPageDTO clientsPage() {
+        List<ClientDTO> clients = LongStream.rangeClosed(1, 20)
+                .mapToObj(CacheValueSerializerTests::client)
+                .toList();
+
+        return new ClientsPageDTO(clients, 0, 20, 10_000, 500, true);
+    }
+
+    private static ClientDTO client(long id) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_456_000);
+
+        List<OrderDTO> orders = IntStream.range(0, 10)
+                .mapToObj(i -> new OrderDTO(
+                        id * 100 + i,
+                        now.minusDays(i),
+                        new BigDecimal("1999.90").add(BigDecimal.valueOf(i)),
+                        OrderStatus.values()[i % OrderStatus.values().length],
+                        id))
+                .toList();
+
+        List<CouponDTO> coupons = IntStream.range(0, 2)
+                .mapToObj(i -> new CouponDTO(
+                        id * 10 + i,
+                        "SUMMER-" + id + "-" + i,
+                        15.5f,
+                        now.plusMonths(1),
+                        List.of(id, id + 1)))
+                .toList();
+
+        return new ClientDTO(
+                id,
+                "Client " + id,
+                "client" + id + "@example.com",
+                now,
+                new ProfileDTO(id, "Lenina street, house " + id, "+7900000" + String.format("%04d", id), id),
+                orders,
+                coupons
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package com.onidza.backend.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// two independent clusters stand in for primary and replica, routing is told apart by system_identifier
+@SpringBootTest(properties = {
+        "app.cache.mode=none",
+        "app.cache.warmup.enabled=false",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.health-check-interval=200ms",
+        "app.datasource.replicas.read-your-writes-window=2s"
+})
+@ActiveProfiles("test")
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTests {
+
+    private static final String CLUSTER_ID = "select system_identifier from pg_control_system()";
+
+    @Container
+    static PostgreSQLContainer<?> primary =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @Container
+    static PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("app.datasource.replicas.nodes[0].name", () -> "replica-1");
+        registry.add("app.datasource.replicas.nodes[0].url", replica::getJdbcUrl);
+        registry.add("app.datasource.replicas.nodes[0].username", replica::getUsername);
+        registry.add("app.datasource.replicas.nodes[0].password", replica::getPassword);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaHealth replicaHealth;
+
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+
+        if (replica.isRunning()) awaitHealthy(1);
+    }
+
+    @AfterEach
+    void clearClient() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Order(1)
+    void readOnlyTransactionsGoToReplicaAndWritesToPrimary() {
+        long primaryId = clusterId(primary);
+        long replicaId = clusterId(replica);
+
+        assertEquals(replicaId, servedBy(reads));
+        assertEquals(primaryId, servedBy(writes));
+    }
+
+    @Test
+    @Order(2)
+    void clientReadsItsOwnWritesFromPrimaryWithinWindow() {
+        long primaryId = clusterId(primary);
+        long replicaId = clusterId(replica);
+
+        actAs("writer");
+        servedBy(writes);
+        assertEquals(primaryId, servedBy(reads));
+
+        actAs("someone-else");
+        assertEquals(replicaId, servedBy(reads));
+    }
+
+    @Test
+    @Order(3)
+    void readsFallBackToPrimaryWhenReplicaIsDown() throws InterruptedException {
+        long primaryId = clusterId(primary);
+        long replicaId = clusterId(replica);
+
+        replica.stop();
+        awaitHealthy(0);
+
+        long served = servedBy(reads);
+        assertEquals(primaryId, served);
+        assertNotEquals(replicaId, served);
+    }
+
+    private long servedBy(TransactionTemplate tx) {
+        Long clusterId = tx.execute(status -> jdbcTemplate.queryForObject(CLUSTER_ID, Long.class));
+        return clusterId == null ? -1 : clusterId;
+    }
+
+    private void awaitHealthy(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicaHealth.healthy().size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        assertEquals(expected, replicaHealth.healthy().size());
+    }
+
+    private static void actAs(String client) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(client, null, "ROLE_USER"));
+    }
+
+    private static long clusterId(PostgreSQLContainer<?> container) {
+        DriverManagerDataSource direct = new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword());
+
+        return new JdbcTemplate(direct).queryForObject(CLUSTER_ID, Long.class);
+    }
+}
@@ -0,0 +1,126 @@
+package com.onidza.backend.config.datasource;
+
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.entity.Client;
+import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.service.client.ClientService;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// the replica has the schema but never receives writes, a standby that lags behind every commit
+@SpringBootTest(properties = {
+        "app.cache.mode=two_tier",
+        "app.cache.warmup.enabled=false",
+        "app.datasource.replicas.enabled=true",
+        "app.datasource.replicas.health-check-interval=200ms"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class ReplicaLagCacheTests {
+
+    @Container
+    static PostgreSQLContainer<?> primary =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @Container
+    static PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primary::getJdbcUrl);
+        registry.add("spring.datasource.username", primary::getUsername);
+        registry.add("spring.datasource.password", primary::getPassword);
+        registry.add("app.datasource.replicas.nodes[0].name", () -> "replica-1");
+        registry.add("app.datasource.replicas.nodes[0].url", replica::getJdbcUrl);
+        registry.add("app.datasource.replicas.nodes[0].username", replica::getUsername);
+        registry.add("app.datasource.replicas.nodes[0].password", replica::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @BeforeAll
+    static void replicaSchema() throws Exception {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(
+                replica.getJdbcUrl(), replica.getUsername(), replica.getPassword()));
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaHealth replicaHealth;
+
+    private TransactionTemplate reads;
+    private TransactionTemplate writes;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+        writes = new TransactionTemplate(transactionManager);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (replicaHealth.healthy().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, replicaHealth.healthy().size());
+    }
+
+    @Test
+    void cachedReadsAfterWriteComeFromPrimaryWhileReplicaLags() {
+        Long id = writes.execute(status -> {
+            Client client = new Client("lagging", "lagging@mail.com", new Profile("address", "+100000000"));
+            client.getProfile().setClient(client);
+
+            return clientRepository.save(client).getId();
+        });
+
+        // an uncached read-only read goes to the replica and does not see the write
+        assertTrue(reads.execute(status -> clientRepository.findById(id)).isEmpty());
+
+        ClientDTO loaded = clientService.getClient(id);
+        ClientDTO cached = clientService.getClient(id);
+        assertEquals("lagging", loaded.name());
+        assertEquals(loaded, cached);
+
+        ClientsPageDTO page = clientService.getClientsPage(0, 20, CountMode.EXACT);
+        assertTrue(page.items().stream().anyMatch(client -> client.id().equals(id)));
+        assertEquals(1, page.totalElements());
+    }
+}
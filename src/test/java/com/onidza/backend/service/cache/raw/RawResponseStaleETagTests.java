@@ -0,0 +1,120 @@
+package com.onidza.backend.service.cache.raw;
+
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.config.cache.keys.CacheVersionKeys;
+import com.onidza.backend.model.entity.Client;
+import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.service.cache.CacheVersionService;
+import com.onidza.backend.service.cache.invalidation.InvalidationPlan;
+import com.onidza.backend.service.client.ClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// a stale-while-revalidate region can answer a bumped version with the previous body,
+// so a tag derived from the new version must never reach the client
+@SpringBootTest(properties = {
+        "app.cache.mode=two_tier",
+        "app.cache.warmup.enabled=false",
+        "app.cache.regions.[clientsPage].stale-while-revalidate=true",
+        "app.cache.regions.[clientsPage].admission-min-frequency=0"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class RawResponseStaleETagTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private RawResponseCache rawResponses;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CacheVersionService versionService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            clientRepository.deleteAll();
+
+            Client client = new Client("client", "client@mail.com", new Profile("address", "+100000000"));
+            client.getProfile().setClient(client);
+            clientRepository.save(client);
+        });
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void staleServeAfterBumpIsNeverNotModified() {
+        ResponseEntity<?> first = page(null);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNull(first.getHeaders().getETag());
+
+        versionService.execute(InvalidationPlan.builder()
+                .bump(CacheVersionKeys.CLIENTS_PAGE_VER_KEY)
+                .build());
+
+        ResponseEntity<?> second = page("*");
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertNull(second.getHeaders().getETag());
+    }
+
+    private ResponseEntity<?> page(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/clients");
+        if (ifNoneMatch != null) request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        return rawResponses.serve(
+                CacheKeys.CLIENTS_PAGE_PREFIX,
+                rawResponses.key("clientPageKeyGen", 0, 20, CountMode.EXACT),
+                () -> clientService.getClientsPage(0, 20, CountMode.EXACT));
+    }
+}
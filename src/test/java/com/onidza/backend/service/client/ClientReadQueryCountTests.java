@@ -0,0 +1,126 @@
+package com.onidza.backend.service.client;
+
+import com.onidza.backend.model.dto.client.ClientDTO;
+import com.onidza.backend.model.dto.client.ClientsPageDTO;
+import com.onidza.backend.model.entity.Client;
+import com.onidza.backend.model.entity.Coupon;
+import com.onidza.backend.model.entity.Order;
+import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.model.enums.CountMode;
+import com.onidza.backend.model.enums.OrderStatus;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.repository.CouponRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.cache.mode=none",
+        "app.cache.tombstones.enabled=false"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class ClientReadQueryCountTests {
+
+    // clients, orders, coupon links and coupons, however many clients and associations there are
+    private static final long CLIENT_READ_QUERIES = 4;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long firstClientId;
+
+    @BeforeEach
+    void seed() {
+        firstClientId = transactionTemplate.execute(status -> {
+            clientRepository.deleteAll();
+            couponRepository.deleteAll();
+
+            Coupon shared = couponRepository.save(new Coupon("SHARED", 5, null));
+
+            Long first = null;
+            for (int i = 0; i < 5; i++) {
+                Client client = new Client("client" + i, "client" + i + "@mail.com",
+                        new Profile("address" + i, "+10000000" + i));
+                client.getProfile().setClient(client);
+
+                for (int j = 0; j < 3; j++) {
+                    new Order(LocalDateTime.now(), BigDecimal.TEN, OrderStatus.NEW)
+                            .setBiClientOrder(client);
+                }
+                client.setBiCouponClient(shared);
+                client.setBiCouponClient(new Coupon("OWN" + i, 10, null));
+
+                Client saved = clientRepository.save(client);
+                if (first == null) first = saved.getId();
+            }
+
+            return first;
+        });
+
+        statistics().clear();
+    }
+
+    @Test
+    void clientsPageUsesFixedNumberOfQueries() {
+        ClientsPageDTO page = clientService.getClientsPage(0, 20, CountMode.EXACT);
+
+        assertEquals(5, page.items().size());
+        assertEquals(3, page.items().get(0).orders().size());
+        assertEquals(2, page.items().get(0).coupons().size());
+        assertEquals(CLIENT_READ_QUERIES, statistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void clientDetailsUseFixedNumberOfQueries() {
+        ClientDTO client = clientService.getClient(firstClientId);
+
+        assertEquals(3, client.orders().size());
+        assertEquals(2, client.coupons().size());
+        assertEquals(CLIENT_READ_QUERIES, statistics().getPrepareStatementCount());
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
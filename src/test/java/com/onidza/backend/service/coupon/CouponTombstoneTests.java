@@ -0,0 +1,119 @@
+package com.onidza.backend.service.coupon;
+
+import com.onidza.backend.config.cache.keys.CacheKeys;
+import com.onidza.backend.model.dto.coupon.CouponDTO;
+import com.onidza.backend.model.entity.Coupon;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.repository.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "app.cache.mode=two_tier",
+        "app.cache.warmup.enabled=false",
+        "app.cache.tombstones.enabled=true"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class CouponTombstoneTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @Container
+    static GenericContainer<?> redis =
+            new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379));
+    }
+
+    @Autowired
+    private CouponService couponService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long couponId;
+
+    @BeforeEach
+    void seed() {
+        couponId = transactionTemplate.execute(status -> {
+            clientRepository.deleteAll();
+            couponRepository.deleteAll();
+
+            return couponRepository.save(new Coupon("SPRING-2026", 10, null)).getId();
+        });
+    }
+
+    @Test
+    void updatedCouponIsReadBackAfterEviction() {
+        couponService.updateCoupon(couponId, new CouponDTO(
+                couponId, "SUMMER-2026", 15, LocalDateTime.now().plusDays(7), List.of()));
+
+        cacheManager.getCache(CacheKeys.COUPON_KEY_PREFIX).evict(couponId);
+        CouponDTO coupon = couponService.getCoupon(couponId);
+
+        assertEquals("SUMMER-2026", coupon.code());
+        assertEquals(15, coupon.discount());
+    }
+
+    @Test
+    void deletedCouponIsAnsweredFromTombstone() {
+        double before = tombstoneHits();
+
+        couponService.deleteCoupon(couponId);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> couponService.getCoupon(couponId));
+
+        assertEquals(HttpStatus.NOT_FOUND, e.getStatusCode());
+        assertEquals(before + 1, tombstoneHits());
+    }
+
+    private double tombstoneHits() {
+        Counter hits = meterRegistry.find("cache.tombstones")
+                .tags("region", CacheKeys.COUPON_KEY_PREFIX, "result", "hit")
+                .counter();
+
+        return hits == null ? 0 : hits.count();
+    }
+}
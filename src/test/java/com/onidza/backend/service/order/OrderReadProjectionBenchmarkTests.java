@@ -0,0 +1,153 @@
+package com.onidza.backend.service.order;
+
+import com.onidza.backend.model.dto.order.OrderDTO;
+import com.onidza.backend.model.dto.order.OrderFilterDTO;
+import com.onidza.backend.model.entity.Client;
+import com.onidza.backend.model.entity.Order;
+import com.onidza.backend.model.entity.Profile;
+import com.onidza.backend.model.enums.OrderStatus;
+import com.onidza.backend.model.filters.OrderSpecification;
+import com.onidza.backend.model.mappers.MapperService;
+import com.onidza.backend.repository.ClientRepository;
+import com.onidza.backend.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@SpringBootTest(properties = {
+        "app.cache.mode=none",
+        "app.cache.warmup.enabled=false"
+})
+@ActiveProfiles("test")
+@Testcontainers
+class OrderReadProjectionBenchmarkTests {
+
+    private static final int CLIENTS = 20;
+    private static final int ORDERS_PER_CLIENT = 100;
+    private static final int PAGE_SIZE = 50;
+    private static final int PAGES = CLIENTS * ORDERS_PER_CLIENT / PAGE_SIZE;
+    private static final int ROUNDS = 20;
+
+    @Container
+    static PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>("postgres:18");
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private MapperService mapperService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final Specification<Order> allOrders =
+            OrderSpecification.byFilter(new OrderFilterDTO(null, null, null, null, null));
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            clientRepository.deleteAll();
+
+            for (int i = 0; i < CLIENTS; i++) {
+                Client client = new Client("client" + i, "client" + i + "@mail.com",
+                        new Profile("address " + i, "+10000000" + i));
+                client.getProfile().setClient(client);
+
+                for (int j = 0; j < ORDERS_PER_CLIENT; j++) {
+                    new Order(LocalDateTime.now(), BigDecimal.valueOf(j + 1L), OrderStatus.NEW)
+                            .setBiClientOrder(client);
+                }
+
+                clientRepository.save(client);
+            }
+        });
+    }
+
+    @Test
+    void dtoProjectionAllocatesLessPerPageThanEntityMapping() {
+        Function<Pageable, List<OrderDTO>> entityPath = pageable -> orderRepository
+                .findBy(allOrders, query -> query.slice(pageable))
+                .map(mapperService::orderToDTO)
+                .getContent();
+
+        Function<Pageable, List<OrderDTO>> dtoPath = pageable -> orderRepository
+                .findDtoSlice(allOrders, pageable)
+                .getContent();
+
+        assertThat(readAll(dtoPath)).isEqualTo(readAll(entityPath));
+
+        long[] entity = measure(entityPath);
+        long[] dto = measure(dtoPath);
+
+        log.info("path = entity, bytes/page = {}, latency/page = {} us", entity[0], entity[1] / 1_000);
+        log.info("path = dto, bytes/page = {}, latency/page = {} us", dto[0], dto[1] / 1_000);
+
+        assertThat(dto[0]).isLessThan(entity[0]);
+    }
+
+    // bytes allocated and nanos spent per page, after a warm-up round
+    private long[] measure(Function<Pageable, List<OrderDTO>> path) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        readAll(path);
+
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) readAll(path);
+        long nanos = System.nanoTime() - start;
+        long bytes = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+
+        int pages = ROUNDS * PAGES;
+        return new long[]{bytes / pages, nanos / pages};
+    }
+
+    // one read-only transaction per page, the way the page services run
+    private List<OrderDTO> readAll(Function<Pageable, List<OrderDTO>> path) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        List<OrderDTO> all = new ArrayList<>();
+        for (int page = 0; page < PAGES; page++) {
+            Pageable pageable = PageRequest.of(page, PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+            all.addAll(tx.execute(status -> path.apply(pageable)));
+        }
+
+        return all;
+    }
+}